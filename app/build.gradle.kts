@@ -22,12 +22,124 @@ android {
             proguardFiles(getDefaultProguardFile("proguard-android-optimize.txt"), "proguard-rules.pro")
         }
     }
+    androidResources {
+        // datos_curiosos.bin se mapea en memoria: tiene que ir sin comprimir en el APK
+        noCompress += "bin"
+    }
+    buildFeatures {
+        // BuildConfig.DEBUG activa el panel de latencias en vivo
+        buildConfig = true
+    }
+    testOptions {
+        // android.util.Log no hace nada en las pruebas de la JVM (la bitácora registra al abrir)
+        unitTests.isReturnDefaultValues = true
+        unitTests.all {
+            // Escala de los microbenchmarks de la JVM: ./gradlew test -Pbenchmark.escala=20
+            it.systemProperty("benchmark.escala", project.findProperty("benchmark.escala") ?: "1")
+        }
+    }
     compileOptions {
         sourceCompatibility = JavaVersion.VERSION_1_8
         targetCompatibility = JavaVersion.VERSION_1_8
     }
 }
 
+// Compila app/src/main/datos/datos_curiosos.tsv (etiqueta<TAB>dato) al índice binario que
+// lee DatosCuriosos. Formato (enteros big-endian):
+//   encabezado: magia "DCUR", versión, cubetas, etiquetas, datos
+//   cubetas:    int[cubetas], número de etiqueta + 1 (0 = vacía), sondeo lineal por hash
+//   etiquetas:  por etiqueta {hash, offset de la clave, primer dato, cantidad de datos}
+//   datos:      int[datos], offset de cada dato
+//   cadenas:    largo (u16) + UTF-8; las claves en minúsculas y ASCII
+abstract class CompilarDatosCuriosos : DefaultTask() {
+    @get:InputFile
+    abstract val fuente: RegularFileProperty
+
+    @get:OutputDirectory
+    abstract val salida: DirectoryProperty
+
+    @TaskAction
+    fun compilar() {
+        val porEtiqueta = linkedMapOf<String, MutableList<String>>()
+        fuente.get().asFile.readLines(Charsets.UTF_8).forEachIndexed { n, linea ->
+            if (linea.isBlank() || linea.startsWith("#")) return@forEachIndexed
+            val partes = linea.split('\t', limit = 2)
+            require(partes.size == 2) { "Línea ${n + 1}: se esperaba etiqueta<TAB>dato" }
+            val etiqueta = partes[0].trim().lowercase(java.util.Locale.ROOT)
+            require(etiqueta.all { it.code < 128 }) { "Línea ${n + 1}: la etiqueta debe ser ASCII" }
+            porEtiqueta.getOrPut(etiqueta) { mutableListOf() }.add(partes[1].trim())
+        }
+
+        val etiquetas = porEtiqueta.keys.toList()
+        val cantidadDatos = porEtiqueta.values.sumOf { it.size }
+        var cubetas = 1
+        while (cubetas < etiquetas.size * 2) cubetas *= 2
+        val inicioEtiquetas = 20 + cubetas * 4
+        val inicioDatos = inicioEtiquetas + etiquetas.size * 16
+        val inicioCadenas = inicioDatos + cantidadDatos * 4
+
+        val cadenas = java.io.ByteArrayOutputStream()
+        fun agregarCadena(texto: String): Int {
+            val bytes = texto.toByteArray(Charsets.UTF_8)
+            require(bytes.size <= 0xFFFF) { "Cadena demasiado larga: $texto" }
+            val offset = inicioCadenas + cadenas.size()
+            cadenas.write(bytes.size shr 8)
+            cadenas.write(bytes.size and 0xFF)
+            cadenas.write(bytes)
+            return offset
+        }
+
+        val tabla = IntArray(cubetas)
+        val entradas = IntArray(etiquetas.size * 4)
+        val offsetsDatos = IntArray(cantidadDatos)
+        var siguienteDato = 0
+        etiquetas.forEachIndexed { i, etiqueta ->
+            val hash = etiqueta.hashCode()
+            var cubeta = hash and (cubetas - 1)
+            while (tabla[cubeta] != 0) cubeta = (cubeta + 1) and (cubetas - 1)
+            tabla[cubeta] = i + 1
+            val datos = porEtiqueta.getValue(etiqueta)
+            entradas[i * 4] = hash
+            entradas[i * 4 + 1] = agregarCadena(etiqueta)
+            entradas[i * 4 + 2] = siguienteDato
+            entradas[i * 4 + 3] = datos.size
+            datos.forEach { offsetsDatos[siguienteDato++] = agregarCadena(it) }
+        }
+
+        val archivo = salida.file("datos_curiosos.bin").get().asFile
+        java.io.DataOutputStream(archivo.outputStream().buffered()).use { out ->
+            out.writeInt(0x44435552)
+            out.writeInt(1)
+            out.writeInt(cubetas)
+            out.writeInt(etiquetas.size)
+            out.writeInt(cantidadDatos)
+            tabla.forEach { out.writeInt(it) }
+            entradas.forEach { out.writeInt(it) }
+            offsetsDatos.forEach { out.writeInt(it) }
+            cadenas.writeTo(out)
+        }
+        logger.lifecycle("Datos curiosos: ${etiquetas.size} etiquetas, $cantidadDatos datos, ${archivo.length()} bytes")
+    }
+}
+
+val compilarDatosCuriosos = tasks.register<CompilarDatosCuriosos>("compilarDatosCuriosos") {
+    fuente.set(layout.projectDirectory.file("src/main/datos/datos_curiosos.tsv"))
+    salida.set(layout.buildDirectory.dir("generated/datosCuriosos"))
+}
+
+androidComponents {
+    onVariants { variant ->
+        variant.sources.assets?.addGeneratedSourceDirectory(compilarDatosCuriosos, CompilarDatosCuriosos::salida)
+    }
+}
+
+// Las pruebas de la JVM leen el mismo índice que va en el APK
+tasks.withType<Test>().configureEach {
+    val indice = compilarDatosCuriosos.flatMap { it.salida.file("datos_curiosos.bin") }
+    inputs.file(indice)
+    doFirst { systemProperty("datosCuriosos.bin", indice.get().asFile.absolutePath) }
+}
+
 dependencies {
     // Agrega estas líneas para CameraX
     implementation ("androidx.camera:camera-core:1.3.1")
@@ -45,6 +157,8 @@ dependencies {
 
     // CardView para un diseño más sencillo con bordes redondeados y sombras
     implementation("androidx.cardview:cardview:1.0.0")
+    // Orientación EXIF al decodificar imágenes reducidas
+    implementation("androidx.exifinterface:exifinterface:1.3.7")
     implementation(libs.activity)
     implementation(libs.constraintlayout)
 
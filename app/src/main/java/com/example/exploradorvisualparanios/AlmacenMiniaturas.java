@@ -0,0 +1,74 @@
+package com.example.exploradorvisualparanios;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+// Miniaturas JPEG de los descubrimientos, todas en un solo archivo de solo-agregar
+// aparte de la bitácora: cada registro es {largo, crc32, bytes} y se identifica por
+// su offset. Un registro cortado por un cierre abrupto nunca llega a estar
+// referenciado (la bitácora se escribe después) y al leerlo falla el crc.
+// Escribe un solo hilo; leer se puede desde cualquiera.
+public class AlmacenMiniaturas {
+
+    private static final int TAM_ENCABEZADO_REGISTRO = 8;
+    // Más que cualquier miniatura razonable: protege de largos corruptos
+    private static final int MAX_BYTES = 256 * 1024;
+
+    private final RandomAccessFile archivo;
+    private final FileChannel canal;
+
+    public AlmacenMiniaturas(File ruta) throws IOException {
+        archivo = new RandomAccessFile(ruta, "rw");
+        canal = archivo.getChannel();
+    }
+
+    // Devuelve el offset con el que después se lee. No fuerza a disco: lo hace forzar().
+    public long guardar(byte[] jpeg) throws IOException {
+        long offset = canal.size();
+        CRC32 crc = new CRC32();
+        crc.update(jpeg);
+        ByteBuffer buffer = ByteBuffer.allocate(TAM_ENCABEZADO_REGISTRO + jpeg.length);
+        buffer.putInt(jpeg.length).putInt((int) crc.getValue()).put(jpeg);
+        buffer.flip();
+        long posicion = offset;
+        while (buffer.hasRemaining()) posicion += canal.write(buffer, posicion);
+        return offset;
+    }
+
+    public void forzar() throws IOException {
+        canal.force(false);
+    }
+
+    // null si el offset no apunta a una miniatura válida
+    public byte[] leer(long offset) throws IOException {
+        // Restando del tamaño: un offset corrupto cerca de Long.MAX_VALUE no desborda
+        long tamano = canal.size();
+        if (offset < 0 || offset > tamano - TAM_ENCABEZADO_REGISTRO) return null;
+        ByteBuffer encabezado = ByteBuffer.allocate(TAM_ENCABEZADO_REGISTRO);
+        if (!leerCompleto(encabezado, offset)) return null;
+        int largo = encabezado.getInt(0);
+        if (largo <= 0 || largo > MAX_BYTES || largo > tamano - TAM_ENCABEZADO_REGISTRO - offset) return null;
+        ByteBuffer datos = ByteBuffer.allocate(largo);
+        if (!leerCompleto(datos, offset + TAM_ENCABEZADO_REGISTRO)) return null;
+        CRC32 crc = new CRC32();
+        crc.update(datos.array(), 0, largo);
+        return (int) crc.getValue() == encabezado.getInt(4) ? datos.array() : null;
+    }
+
+    public void cerrar() throws IOException {
+        archivo.close();
+    }
+
+    private boolean leerCompleto(ByteBuffer buffer, long posicion) throws IOException {
+        while (buffer.hasRemaining()) {
+            int leidos = canal.read(buffer, posicion);
+            if (leidos < 0) return false;
+            posicion += leidos;
+        }
+        return true;
+    }
+}
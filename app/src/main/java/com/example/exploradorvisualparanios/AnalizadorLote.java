@@ -0,0 +1,169 @@
+package com.example.exploradorvisualparanios;
+
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.google.mlkit.vision.common.InputImage;
+import com.google.mlkit.vision.label.ImageLabel;
+import com.google.mlkit.vision.label.ImageLabeler;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Analiza varias fotos de la galería como una tubería decodificar → etiquetar →
+// traducir con a lo sumo `concurrencia` fotos en vuelo: la siguiente foto recién
+// se empieza a decodificar cuando otra terminó, así nunca hay más de
+// `concurrencia` bitmaps en memoria. Las fotos se decodifican ya reducidas al
+// tamaño de inferencia y el bitmap vuelve al pool apenas termina el etiquetado;
+// de cada foto solo se guardan sus mejores etiquetas traducidas, y la principal
+// va a la bitácora de descubrimientos con una miniatura.
+// La coordinación y el armado de textos corren en el ejecutor de resultados y la
+// decodificación en un pool propio; al hilo principal solo llega una vista por foto.
+public class AnalizadorLote {
+
+    public interface Oyente {
+        // En el hilo principal, una vez por foto terminada (la última trae la frase final)
+        void alPublicar(VistaResultados vista);
+    }
+
+    private static final String TAG = "AnalizadorLote";
+
+    private final ImageLabeler etiquetador;
+    private final Traductor traductor;
+    private final BitacoraDescubrimientos bitacora;
+    private final DecodificadorImagenes decodificador;
+    private final int concurrencia;
+    private final int ladoInferencia;
+    private final int etiquetasPorFoto;
+    private final Executor resultados;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final ExecutorService decodificadores;
+
+    private List<Uri> fotos;
+    private ResumenLote resumen;
+    private Oyente oyente;
+    private int siguiente = 0;
+    private int enVuelo = 0;
+    private volatile boolean cancelado = false;
+    private long inicioMs = 0;
+
+    public AnalizadorLote(DecodificadorImagenes decodificador, ImageLabeler etiquetador, Traductor traductor,
+                          BitacoraDescubrimientos bitacora, Executor resultados,
+                          int concurrencia, int ladoInferencia, int etiquetasPorFoto) {
+        this.decodificador = decodificador;
+        this.etiquetador = etiquetador;
+        this.traductor = traductor;
+        this.bitacora = bitacora;
+        this.resultados = resultados;
+        this.concurrencia = concurrencia;
+        this.ladoInferencia = ladoInferencia;
+        this.etiquetasPorFoto = etiquetasPorFoto;
+        this.decodificadores = Executors.newFixedThreadPool(concurrencia);
+    }
+
+    // Se usa una sola vez por instancia y desde el hilo principal
+    public void analizar(List<Uri> fotos, Oyente oyente) {
+        this.fotos = fotos;
+        this.oyente = oyente;
+        this.resumen = new ResumenLote(fotos.size());
+        inicioMs = SystemClock.elapsedRealtime();
+        resultados.execute(() -> {
+            if (fotos.isEmpty()) {
+                terminar();
+            } else {
+                lanzarSiguientes();
+            }
+        });
+    }
+
+    // Las fotos en vuelo terminan en silencio; no se empieza ninguna más. El pool se
+    // apaga en el hilo de resultados, así lanzarSiguientes() nunca lo encuentra cerrado
+    public void cancelar() {
+        cancelado = true;
+        resultados.execute(decodificadores::shutdownNow);
+    }
+
+    private void lanzarSiguientes() {
+        while (!cancelado && enVuelo < concurrencia && siguiente < fotos.size()) {
+            enVuelo++;
+            final int posicion = siguiente++;
+            final Uri uri = fotos.get(posicion);
+            decodificadores.execute(() -> decodificar(posicion, uri));
+        }
+    }
+
+    // Hilo de decodificación
+    private void decodificar(int posicion, Uri uri) {
+        try {
+            DecodificadorImagenes.Resultado resultado = decodificador.decodificar(uri, ladoInferencia, ladoInferencia);
+            resultados.execute(() -> etiquetar(posicion, resultado));
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "No se pudo decodificar la foto " + (posicion + 1), e);
+            resultados.execute(() -> terminarFoto(posicion, null));
+        }
+    }
+
+    private void etiquetar(int posicion, DecodificadorImagenes.Resultado imagen) {
+        if (cancelado) {
+            decodificador.liberar(imagen.bitmap);
+            return;
+        }
+        etiquetador.process(InputImage.fromBitmap(imagen.bitmap, imagen.rotacion))
+                .addOnSuccessListener(resultados, labels -> {
+                    byte[] miniatura = labels.isEmpty() || cancelado
+                            ? null : MiniaturasJpeg.comprimir(imagen.bitmap, imagen.rotacion);
+                    decodificador.liberar(imagen.bitmap);
+                    traducir(posicion, labels, miniatura);
+                })
+                .addOnFailureListener(resultados, e -> {
+                    Log.w(TAG, "Falló el etiquetado de la foto " + (posicion + 1), e);
+                    decodificador.liberar(imagen.bitmap);
+                    terminarFoto(posicion, null);
+                });
+    }
+
+    private void traducir(int posicion, List<ImageLabel> labels, byte[] miniatura) {
+        if (cancelado) return;
+        LoteResultados lote = new LoteResultados(etiquetasPorFoto);
+        for (int i = 0; i < labels.size() && lote.cantidad() < etiquetasPorFoto; i++) {
+            lote.agregar(labels.get(i).getText(), labels.get(i).getConfidence());
+        }
+        lote.traducir(traductor, l -> {
+            if (l.cantidad() > 0) {
+                bitacora.registrar(l.traducciones[0], l.ingles[0], l.confianzas[0], Descubrimiento.ORIGEN_LOTE, miniatura);
+            }
+            terminarFoto(posicion, l);
+        });
+    }
+
+    private void terminarFoto(int posicion, LoteResultados lote) {
+        if (cancelado) return;
+        enVuelo--;
+        resumen.registrar(posicion, lote);
+        if (resumen.estaCompleto()) {
+            terminar();
+        } else {
+            publicar(VistaResultados.soloTexto(resumen.construir().toString()));
+            lanzarSiguientes();
+        }
+    }
+
+    private void terminar() {
+        decodificadores.shutdown();
+        Log.d(TAG, "Lote de " + fotos.size() + " fotos en " + (SystemClock.elapsedRealtime() - inicioMs)
+                + " ms con concurrencia " + concurrencia);
+        publicar(VistaResultados.conFrase(resumen.construir().toString(), resumen.fraseFinal()));
+    }
+
+    private void publicar(VistaResultados vista) {
+        handler.post(() -> {
+            if (!cancelado) oyente.alPublicar(vista);
+        });
+    }
+}
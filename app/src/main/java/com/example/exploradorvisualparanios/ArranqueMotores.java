@@ -0,0 +1,153 @@
+package com.example.exploradorvisualparanios;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.google.mlkit.vision.common.InputImage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Arranca en paralelo el etiquetador (con una inferencia de calentamiento), el
+// TTS y el traductor (con su diccionario) apenas aparece Inicio, para que
+// MainActivity los encuentre listos en el ContenedorMotores. También mide el
+// tiempo hasta la primera etiqueta. Cuando el contenedor cierra los motores
+// vuelve a cero, así la próxima Activity los calienta de nuevo.
+public class ArranqueMotores {
+
+    private static final String TAG = "ArranqueMotores";
+
+    private final ContenedorMotores contenedor;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final List<Runnable> alEstarListo = new ArrayList<>();
+
+    // Cambia con cada cierre: los avisos de un arranque anterior se ignoran
+    private int generacion = 0;
+    private boolean iniciado = false;
+    private boolean etiquetadorListo = false;
+    private boolean ttsListo = false;
+    private boolean traductorListo = false;
+    private long inicioMs = 0;
+    private long primeraEtiquetaMs = 0;
+
+    public ArranqueMotores(ContenedorMotores contenedor) {
+        this.contenedor = contenedor;
+        contenedor.setAlCerrar(this::reiniciar);
+    }
+
+    // Idempotente: solo la primera llamada después de crear o cerrar los motores
+    // lanza el calentamiento
+    public void iniciar() {
+        if (iniciado) return;
+        iniciado = true;
+        inicioMs = SystemClock.elapsedRealtime();
+        final int esta = generacion;
+
+        // La primera inferencia carga el modelo; se hace ahora con una imagen vacía
+        Bitmap vacia = Bitmap.createBitmap(64, 64, Bitmap.Config.ARGB_8888);
+        vacia.eraseColor(Color.GRAY);
+        contenedor.getEtiquetador().process(InputImage.fromBitmap(vacia, 0))
+                .addOnCompleteListener(task -> {
+                    vacia.recycle();
+                    if (esta != generacion) return;
+                    etiquetadorListo = true;
+                    marcarListo("etiquetador");
+                });
+
+        contenedor.alInicializarTts(() -> {
+            if (esta != generacion) return;
+            ttsListo = true;
+            marcarListo("TTS");
+        });
+
+        // El diccionario de etiquetas, el índice de datos curiosos y el índice de la cache
+        // de voz se abren fuera del hilo principal
+        new Thread(() -> {
+            contenedor.getTraductorEtiquetas();
+            contenedor.getDatosCuriosos();
+            contenedor.getCacheVoz();
+            handler.post(() -> {
+                if (esta != generacion) return;
+                traductorListo = true;
+                marcarListo("traductor");
+            });
+        }, "arranque-diccionario").start();
+    }
+
+    // Hilo principal, desde ContenedorMotores.cerrar(). Las esperas pendientes se
+    // descartan: su Activity ya no está y no deben saltar en el próximo arranque
+    private void reiniciar() {
+        for (Runnable espera : alEstarListo) handler.removeCallbacksAndMessages(espera);
+        alEstarListo.clear();
+        generacion++;
+        iniciado = false;
+        etiquetadorListo = false;
+        ttsListo = false;
+        traductorListo = false;
+        inicioMs = 0;
+        primeraEtiquetaMs = 0;
+    }
+
+    public boolean estaListo() {
+        return etiquetadorListo && ttsListo && traductorListo;
+    }
+
+    // Ejecuta la acción en el hilo principal cuando todo esté listo o al vencer el tope.
+    // Devuelve la espera para cancelarla con cancelar(), o null si ya se ejecutó
+    public Runnable alEstarListo(long maxEsperaMs, Runnable accion) {
+        if (estaListo()) {
+            accion.run();
+            return null;
+        }
+        boolean[] ejecutada = {false};
+        Runnable unaVez = () -> {
+            if (ejecutada[0]) return;
+            ejecutada[0] = true;
+            accion.run();
+        };
+        alEstarListo.add(unaVez);
+        // El tope se publica con la espera como token para poder quitarlo junto con ella
+        handler.postAtTime(() -> {
+            alEstarListo.remove(unaVez);
+            if (!ejecutada[0]) {
+                Log.w(TAG, "Tope de arranque alcanzado; etiquetador=" + etiquetadorListo
+                        + " tts=" + ttsListo + " traductor=" + traductorListo);
+            }
+            unaVez.run();
+        }, unaVez, SystemClock.uptimeMillis() + maxEsperaMs);
+        return unaVez;
+    }
+
+    // Hilo principal: quita una espera que todavía no se ejecutó, con su tope
+    public void cancelar(Runnable espera) {
+        if (espera == null) return;
+        alEstarListo.remove(espera);
+        handler.removeCallbacksAndMessages(espera);
+    }
+
+    // Métrica de arranque: desde que se empezaron a crear los motores hasta la primera etiqueta
+    public void registrarPrimeraEtiqueta() {
+        if (primeraEtiquetaMs != 0 || inicioMs == 0) return;
+        primeraEtiquetaMs = SystemClock.elapsedRealtime() - inicioMs;
+        Log.i(TAG, "Tiempo hasta la primera etiqueta: " + primeraEtiquetaMs + " ms");
+    }
+
+    public long getPrimeraEtiquetaMs() {
+        return primeraEtiquetaMs;
+    }
+
+    private void marcarListo(String motor) {
+        Log.d(TAG, motor + " listo en " + (SystemClock.elapsedRealtime() - inicioMs) + " ms");
+        if (!estaListo()) return;
+        List<Runnable> pendientes = new ArrayList<>(alEstarListo);
+        alEstarListo.clear();
+        for (Runnable accion : pendientes) {
+            handler.removeCallbacksAndMessages(accion);
+            accion.run();
+        }
+    }
+}
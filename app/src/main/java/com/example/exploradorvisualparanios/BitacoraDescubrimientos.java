@@ -0,0 +1,378 @@
+package com.example.exploradorvisualparanios;
+
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+// Historial de descubrimientos en un archivo de solo-agregar (bitacora.dat):
+// encabezado {magia, versión} y después registros {largo u16, datos, crc32}.
+// registrar() solo encola: un hilo propio escribe por lotes (cada ESPERA_LOTE_MS
+// o MAX_LOTE entradas) y fuerza a disco cada lote, así nunca frena la cámara.
+// Un cierre abrupto pierde como mucho el lote en curso; al abrir se recorre la
+// cola del archivo y se corta en el primer registro incompleto o con crc malo.
+// bitacora.idx guarda el offset (int) de cada registro para leer páginas sin
+// recorrer la bitácora; se escribe después del lote y se completa al abrir si quedó atrás.
+// Las miniaturas llegan ya comprimidas (MiniaturasJpeg) y van a AlmacenMiniaturas.
+public class BitacoraDescubrimientos {
+
+    private static final String TAG = "BitacoraDescubrimientos";
+    static final int MAGIA = 0x44455343; // "DESC"
+    static final int VERSION = 1;
+    static final int TAM_ENCABEZADO = 8;
+    // largo + crc alrededor de los datos de cada registro
+    private static final int TAM_MARCO = 6;
+    // Tope por cadena: mantiene cada registro dentro del largo u16
+    private static final int MAX_CADENA = 1024;
+    // Datos de un registro: instante, confianza, origen, miniatura y los largos de las
+    // dos cadenas. Un registro más corto no es válido aunque su crc coincida (la cola
+    // llena de ceros que deja un corte de luz tiene largo 0 y crc 0).
+    private static final int MIN_DATOS = 8 + 4 + 1 + 8 + 2 + 2;
+    private static final int MAX_DATOS = MIN_DATOS + 2 * MAX_CADENA;
+    private static final long ESPERA_LOTE_MS = 1000;
+    private static final int MAX_LOTE = 32;
+
+    private static class Pendiente {
+        final Descubrimiento descubrimiento;
+        final byte[] miniatura;
+
+        Pendiente(Descubrimiento descubrimiento, byte[] miniatura) {
+            this.descubrimiento = descubrimiento;
+            this.miniatura = miniatura;
+        }
+    }
+
+    private final File directorio;
+    private final ScheduledExecutorService escritor =
+            Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "bitacora"));
+    private final List<Pendiente> pendientes = new ArrayList<>();
+
+    // Se abren en el hilo escritor; los lectores los usan después de sincronizar()
+    private volatile FileChannel canal;
+    private volatile AlmacenMiniaturas miniaturas;
+    private FileChannel canalIndice;
+
+    // Índice en memoria, protegido por this
+    private int[] offsets = new int[256];
+    private int cantidad = 0;
+    private long fin = TAM_ENCABEZADO;
+
+    public BitacoraDescubrimientos(File directorio) {
+        this.directorio = directorio;
+        escritor.execute(this::abrir);
+    }
+
+    // Cualquier hilo. La miniatura es un JPEG (o null) que ya no se modifica.
+    public void registrar(String etiqueta, String ingles, float confianza, int origen, byte[] miniatura) {
+        Descubrimiento d = new Descubrimiento(etiqueta, ingles, confianza, System.currentTimeMillis(), origen,
+                Descubrimiento.SIN_MINIATURA);
+        synchronized (pendientes) {
+            pendientes.add(new Pendiente(d, miniatura));
+            if (pendientes.size() == MAX_LOTE) {
+                escritor.execute(this::escribirPendientes);
+            } else if (pendientes.size() == 1) {
+                escritor.schedule(this::escribirPendientes, ESPERA_LOTE_MS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    // Escribe lo pendiente sin esperar el lote (al salir de la pantalla)
+    public void vaciar() {
+        escritor.execute(this::escribirPendientes);
+    }
+
+    // Bloquea hasta que todo lo registrado hasta ahora esté en disco. No llamar desde el hilo principal.
+    public void sincronizar() {
+        try {
+            escritor.submit(this::escribirPendientes).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            Log.e(TAG, "Error sincronizando la bitácora", e.getCause());
+        }
+    }
+
+    public synchronized int getCantidad() {
+        return cantidad;
+    }
+
+    // Escribe lo pendiente y cierra los archivos; después no se registra nada más
+    void cerrar() throws IOException {
+        sincronizar();
+        escritor.shutdown();
+        FileChannel c = canal;
+        canal = null;
+        if (c != null) c.close();
+        if (canalIndice != null) canalIndice.close();
+        if (miniaturas != null) miniaturas.cerrar();
+    }
+
+    // Entradas [desde, desde + maximo) en orden de registro, con una sola lectura del archivo.
+    // Al abrir solo se revisa la cola; un registro indexado que se dañó después falla acá.
+    public List<Descubrimiento> leer(int desde, int maximo) throws IOException {
+        FileChannel c = canal;
+        int primero;
+        int hasta;
+        long inicio;
+        long finRango;
+        synchronized (this) {
+            if (c == null || desde >= cantidad) return Collections.emptyList();
+            hasta = Math.min(cantidad, desde + maximo);
+            primero = desde;
+            inicio = offsets[desde];
+            finRango = hasta < cantidad ? offsets[hasta] : fin;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) (finRango - inicio));
+        leerCompleto(c, buffer, inicio);
+        List<Descubrimiento> lista = new ArrayList<>(hasta - primero);
+        int posicion = 0;
+        CRC32 crc = new CRC32();
+        try {
+            for (int i = primero; i < hasta; i++) {
+                int largo = buffer.getShort(posicion) & 0xFFFF;
+                crc.reset();
+                crc.update(buffer.array(), posicion + 2, largo);
+                if ((int) crc.getValue() != buffer.getInt(posicion + 2 + largo)) {
+                    throw new IOException("Registro con crc malo en " + (inicio + posicion));
+                }
+                lista.add(decodificar(buffer, posicion + 2, largo));
+                posicion += largo + TAM_MARCO;
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Registro corrupto en " + (inicio + posicion), e);
+        }
+        return lista;
+    }
+
+    // JPEG de la miniatura; null si no hay o no se pudo leer
+    public byte[] leerMiniatura(long offset) {
+        AlmacenMiniaturas almacen = miniaturas;
+        if (almacen == null || offset == Descubrimiento.SIN_MINIATURA) return null;
+        try {
+            return almacen.leer(offset);
+        } catch (IOException e) {
+            Log.w(TAG, "No se pudo leer la miniatura " + offset, e);
+            return null;
+        }
+    }
+
+    // --- Hilo escritor ---
+
+    private void abrir() {
+        try {
+            if (!directorio.isDirectory() && !directorio.mkdirs()) throw new IOException("No se pudo crear " + directorio);
+            File archivo = new File(directorio, "bitacora.dat");
+            FileChannel c = new RandomAccessFile(archivo, "rw").getChannel();
+            if (c.size() < TAM_ENCABEZADO) {
+                ByteBuffer encabezado = ByteBuffer.allocate(TAM_ENCABEZADO).putInt(MAGIA).putInt(VERSION);
+                encabezado.flip();
+                c.truncate(0);
+                c.write(encabezado, 0);
+                c.force(true);
+            } else {
+                ByteBuffer encabezado = ByteBuffer.allocate(TAM_ENCABEZADO);
+                leerCompleto(c, encabezado, 0);
+                if (encabezado.getInt(0) != MAGIA || encabezado.getInt(4) != VERSION) {
+                    throw new IOException("Bitácora con formato desconocido");
+                }
+            }
+            canalIndice = new RandomAccessFile(new File(directorio, "bitacora.idx"), "rw").getChannel();
+            recuperar(c);
+            miniaturas = new AlmacenMiniaturas(new File(directorio, "miniaturas.dat"));
+            canal = c;
+            Log.d(TAG, "Bitácora con " + getCantidad() + " descubrimientos");
+        } catch (IOException e) {
+            Log.e(TAG, "No se pudo abrir la bitácora; los descubrimientos no se guardarán", e);
+        }
+    }
+
+    // Carga el índice, descarta sus entradas que no apunten a un registro válido,
+    // indexa los registros que quedaron sin indexar y corta la cola rota de la bitácora
+    private void recuperar(FileChannel c) throws IOException {
+        int indexados = (int) (canalIndice.size() / 4);
+        ByteBuffer leidos = ByteBuffer.allocate(indexados * 4);
+        leerCompleto(canalIndice, leidos, 0);
+        leidos.flip();
+        int[] cargados = new int[Math.max(256, indexados)];
+        leidos.asIntBuffer().get(cargados, 0, indexados);
+
+        // El primer registro empieza después del encabezado y los offsets crecen
+        // estrictamente; desde el primero que no cumple, el índice no sirve
+        int validos = 0;
+        while (validos < indexados && (validos == 0
+                ? cargados[0] == TAM_ENCABEZADO : cargados[validos] > cargados[validos - 1])) {
+            validos++;
+        }
+        long posicion = TAM_ENCABEZADO;
+        while (validos > 0) {
+            int largo = largoValido(c, cargados[validos - 1]);
+            if (largo > 0) {
+                posicion = cargados[validos - 1] + largo;
+                break;
+            }
+            validos--;
+        }
+
+        synchronized (this) {
+            offsets = cargados;
+            cantidad = validos;
+        }
+        int nuevos = 0;
+        for (int largo; (largo = largoValido(c, posicion)) > 0; posicion += largo) {
+            agregarAlIndice((int) posicion);
+            nuevos++;
+        }
+        if (posicion < c.size()) {
+            Log.w(TAG, "Descartando " + (c.size() - posicion) + " bytes incompletos al final de la bitácora");
+            c.truncate(posicion);
+        }
+        synchronized (this) {
+            fin = posicion;
+        }
+        if (validos < indexados || nuevos > 0) {
+            canalIndice.truncate(validos * 4L);
+            escribirIndice(validos, validos + nuevos);
+        }
+    }
+
+    private void escribirPendientes() {
+        List<Pendiente> lote;
+        synchronized (pendientes) {
+            if (pendientes.isEmpty()) return;
+            lote = new ArrayList<>(pendientes);
+            pendientes.clear();
+        }
+        FileChannel c = canal;
+        if (c == null) return;
+        try {
+            // Las miniaturas van primero: un registro nunca apunta a una miniatura sin escribir
+            long[] offsetsMiniatura = new long[lote.size()];
+            boolean hayMiniaturas = false;
+            for (int i = 0; i < lote.size(); i++) {
+                byte[] jpeg = lote.get(i).miniatura;
+                offsetsMiniatura[i] = Descubrimiento.SIN_MINIATURA;
+                if (jpeg == null) continue;
+                offsetsMiniatura[i] = miniaturas.guardar(jpeg);
+                hayMiniaturas = true;
+            }
+            if (hayMiniaturas) miniaturas.forzar();
+
+            ByteBuffer buffer = ByteBuffer.allocate(lote.size() * 128);
+            int[] inicios = new int[lote.size()];
+            long inicioLote;
+            synchronized (this) {
+                inicioLote = fin;
+            }
+            CRC32 crc = new CRC32();
+            for (int i = 0; i < lote.size(); i++) {
+                byte[] datos = codificar(lote.get(i).descubrimiento, offsetsMiniatura[i]);
+                if (buffer.remaining() < datos.length + TAM_MARCO) {
+                    buffer = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + datos.length + TAM_MARCO))
+                            .put((ByteBuffer) buffer.flip());
+                }
+                inicios[i] = (int) (inicioLote + buffer.position());
+                crc.reset();
+                crc.update(datos);
+                buffer.putShort((short) datos.length).put(datos).putInt((int) crc.getValue());
+            }
+            buffer.flip();
+            int bytes = buffer.remaining();
+            long posicion = inicioLote;
+            while (buffer.hasRemaining()) posicion += c.write(buffer, posicion);
+            c.force(false);
+
+            int desde;
+            synchronized (this) {
+                desde = cantidad;
+                for (int inicio : inicios) agregarAlIndice(inicio);
+                fin = inicioLote + bytes;
+            }
+            escribirIndice(desde, desde + inicios.length);
+        } catch (IOException e) {
+            // El lote se pierde; lo que haya quedado a medias se pisa con el siguiente
+            Log.e(TAG, "No se pudo escribir un lote de " + lote.size() + " descubrimientos", e);
+        }
+    }
+
+    private synchronized void agregarAlIndice(int offset) {
+        if (cantidad == offsets.length) offsets = Arrays.copyOf(offsets, cantidad * 2);
+        offsets[cantidad++] = offset;
+    }
+
+    // El índice no se fuerza: si se pierde su cola, abrir() la reconstruye desde la bitácora
+    private void escribirIndice(int desde, int hasta) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((hasta - desde) * 4);
+        synchronized (this) {
+            buffer.asIntBuffer().put(offsets, desde, hasta - desde);
+        }
+        long posicion = desde * 4L;
+        while (buffer.hasRemaining()) posicion += canalIndice.write(buffer, posicion);
+    }
+
+    // Largo total del registro en esa posición, o -1 si está incompleto o corrupto
+    private static int largoValido(FileChannel c, long posicion) throws IOException {
+        if (posicion < TAM_ENCABEZADO || posicion + TAM_MARCO > c.size()) return -1;
+        ByteBuffer largo = ByteBuffer.allocate(2);
+        leerCompleto(c, largo, posicion);
+        int datos = largo.getShort(0) & 0xFFFF;
+        if (datos < MIN_DATOS || datos > MAX_DATOS || posicion + datos + TAM_MARCO > c.size()) return -1;
+        ByteBuffer registro = ByteBuffer.allocate(datos + 4);
+        leerCompleto(c, registro, posicion + 2);
+        CRC32 crc = new CRC32();
+        crc.update(registro.array(), 0, datos);
+        return (int) crc.getValue() == registro.getInt(datos) ? datos + TAM_MARCO : -1;
+    }
+
+    private static byte[] codificar(Descubrimiento d, long miniatura) {
+        byte[] etiqueta = recortar(d.etiqueta);
+        byte[] ingles = recortar(d.ingles);
+        ByteBuffer buffer = ByteBuffer.allocate(8 + 4 + 1 + 8 + 2 + etiqueta.length + 2 + ingles.length);
+        buffer.putLong(d.instanteMs).putFloat(d.confianza).put((byte) d.origen).putLong(miniatura)
+                .putShort((short) etiqueta.length).put(etiqueta)
+                .putShort((short) ingles.length).put(ingles);
+        return buffer.array();
+    }
+
+    private static Descubrimiento decodificar(ByteBuffer buffer, int posicion, int largo) {
+        ByteBuffer datos = (ByteBuffer) buffer.duplicate().position(posicion).limit(posicion + largo);
+        long instante = datos.getLong();
+        float confianza = datos.getFloat();
+        int origen = datos.get();
+        long miniatura = datos.getLong();
+        String etiqueta = leerCadena(datos);
+        String ingles = leerCadena(datos);
+        return new Descubrimiento(etiqueta, ingles, confianza, instante, origen, miniatura);
+    }
+
+    private static byte[] recortar(String texto) {
+        byte[] bytes = (texto != null ? texto : "").getBytes(StandardCharsets.UTF_8);
+        return bytes.length <= MAX_CADENA ? bytes : Arrays.copyOf(bytes, MAX_CADENA);
+    }
+
+    private static String leerCadena(ByteBuffer datos) {
+        byte[] bytes = new byte[datos.getShort() & 0xFFFF];
+        datos.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void leerCompleto(FileChannel c, ByteBuffer buffer, long posicion) throws IOException {
+        while (buffer.hasRemaining()) {
+            int leidos = c.read(buffer, posicion);
+            if (leidos < 0) throw new IOException("Fin de archivo inesperado en " + posicion);
+            posicion += leidos;
+        }
+    }
+}
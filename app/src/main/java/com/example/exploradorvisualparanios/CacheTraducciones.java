@@ -0,0 +1,99 @@
+package com.example.exploradorvisualparanios;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Cache de traducciones inglés → español en dos niveles:
+// 1) LRU en memoria para las etiquetas que más se repiten.
+// 2) Diccionario precalculado (asset) + almacén persistente para lo que falte.
+public class CacheTraducciones {
+
+    // Almacén persistente para traducciones que no vienen en el diccionario
+    public interface Almacen {
+        String leer(String clave);
+        void guardar(String clave, String valor);
+    }
+
+    private final LinkedHashMap<String, String> lru;
+    private final Map<String, String> diccionario;
+    private final Almacen almacen;
+
+    private int aciertosMemoria = 0;
+    private int aciertosDiccionario = 0;
+    private int aciertosAlmacen = 0;
+    private int fallos = 0;
+
+    public CacheTraducciones(final int capacidad, Map<String, String> diccionario, Almacen almacen) {
+        this.diccionario = diccionario;
+        this.almacen = almacen;
+        this.lru = new LinkedHashMap<String, String>(capacidad, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > capacidad;
+            }
+        };
+    }
+
+    // Devuelve la traducción si algún nivel la conoce, o null si hay que traducir
+    public synchronized String buscar(String ingles) {
+        String clave = normalizar(ingles);
+        String traduccion = lru.get(clave);
+        if (traduccion != null) {
+            aciertosMemoria++;
+            return traduccion;
+        }
+
+        traduccion = diccionario.get(clave);
+        if (traduccion != null) {
+            aciertosDiccionario++;
+        } else if (almacen != null && (traduccion = almacen.leer(clave)) != null) {
+            aciertosAlmacen++;
+        } else {
+            fallos++;
+            return null;
+        }
+
+        lru.put(clave, traduccion);
+        return traduccion;
+    }
+
+    // Una traducción fallida (null o vacía) no se guarda en ningún nivel
+    public synchronized void guardar(String ingles, String espanol) {
+        if (espanol == null || espanol.trim().isEmpty()) return;
+        String clave = normalizar(ingles);
+        lru.put(clave, espanol);
+        if (almacen != null && !diccionario.containsKey(clave)) {
+            almacen.guardar(clave, espanol);
+        }
+    }
+
+    public synchronized String resumen() {
+        return "memoria=" + aciertosMemoria + " diccionario=" + aciertosDiccionario
+                + " almacén=" + aciertosAlmacen + " fallos=" + fallos;
+    }
+
+    static String normalizar(String ingles) {
+        return ingles.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Lee el diccionario en formato "etiqueta<TAB>traducción", ignorando comentarios (#)
+    public static Map<String, String> cargarDiccionario(InputStream in) throws IOException {
+        Map<String, String> diccionario = new HashMap<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String linea;
+        while ((linea = reader.readLine()) != null) {
+            if (linea.isEmpty() || linea.startsWith("#")) continue;
+            int tab = linea.indexOf('\t');
+            if (tab <= 0 || tab == linea.length() - 1) continue;
+            diccionario.put(normalizar(linea.substring(0, tab)), linea.substring(tab + 1).trim());
+        }
+        return diccionario;
+    }
+}
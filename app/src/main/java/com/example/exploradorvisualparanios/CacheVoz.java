@@ -0,0 +1,276 @@
+package com.example.exploradorvisualparanios;
+
+import android.media.MediaPlayer;
+import android.os.Handler;
+import android.os.Looper;
+import android.speech.tts.TextToSpeech;
+import android.speech.tts.UtteranceProgressListener;
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Frases ya sintetizadas en disco para que "¡Veo ...!" suene al instante. Si la
+// frase está en cache se reproduce el archivo con un MediaPlayer; si no, se dice
+// con el TTS en vivo y se agenda su síntesis (synthesizeToFile) para la próxima.
+// Las síntesis corren de a una y solo mientras el TTS no está hablando, porque
+// hablar con QUEUE_FLUSH o stop() también cancela las síntesis pendientes; una
+// síntesis interrumpida vuelve a la cola. El directorio es un LRU acotado en
+// bytes: el orden se guarda en la fecha de modificación de cada archivo.
+// Todo corre en el hilo principal; los callbacks del TTS se pasan a él.
+public class CacheVoz {
+
+    public interface Oyente {
+        // La frase con ese id empezó a sonar (desde cache o en vivo)
+        void alEmpezar(String id);
+    }
+
+    private static final String TAG = "CacheVoz";
+    private static final String EXTENSION = ".wav";
+    private static final String PREFIJO_SINTESIS = "sintesis-";
+    private static final int MAX_PENDIENTES = 8;
+
+    private final TextToSpeech tts;
+    private final File directorio;
+    private final long maxBytes;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    // clave → bytes, en orden de uso (el primero es el menos usado)
+    private final LinkedHashMap<String, Long> indice = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytesTotales = 0;
+    private final ArrayDeque<String> pendientes = new ArrayDeque<>();
+
+    private MediaPlayer reproductor;
+    private Oyente oyente;
+    private String idHablando;
+    private String idSintesis;
+    private String textoSintesis;
+    private int contadorSintesis = 0;
+
+    private int aciertos = 0;
+    private int fallos = 0;
+    private int sintetizadas = 0;
+    private int expulsadas = 0;
+    private int interrumpidas = 0;
+
+    public CacheVoz(TextToSpeech tts, File directorio, long maxBytes) {
+        this.tts = tts;
+        this.directorio = directorio;
+        this.maxBytes = maxBytes;
+        cargarIndice();
+        tts.setOnUtteranceProgressListener(new UtteranceProgressListener() {
+            @Override
+            public void onStart(String utteranceId) {
+                handler.post(() -> {
+                    if (utteranceId.equals(idHablando) && oyente != null) oyente.alEmpezar(utteranceId);
+                });
+            }
+
+            @Override
+            public void onDone(String utteranceId) {
+                handler.post(() -> alTerminar(utteranceId, true));
+            }
+
+            @Override
+            public void onError(String utteranceId) {
+                handler.post(() -> alTerminar(utteranceId, false));
+            }
+
+            @Override
+            public void onStop(String utteranceId, boolean interrupted) {
+                handler.post(() -> alTerminar(utteranceId, false));
+            }
+        });
+    }
+
+    public void setOyente(Oyente oyente) {
+        this.oyente = oyente;
+    }
+
+    // Corta lo que esté sonando y dice el texto. Con cachear, una falla agenda la síntesis.
+    public void hablar(String texto, String id, boolean cachear) {
+        detener();
+        String clave = clave(texto);
+        if (indice.get(clave) != null) {
+            if (reproducir(archivo(clave), id)) {
+                aciertos++;
+                return;
+            }
+            quitar(clave);
+        }
+        fallos++;
+
+        // QUEUE_FLUSH también descarta la síntesis en curso: vuelve a la cola
+        interrumpirSintesis();
+        idHablando = id;
+        tts.speak(texto, TextToSpeech.QUEUE_FLUSH, null, id);
+        if (cachear) precalentar(texto);
+    }
+
+    // Agenda la síntesis de una frase que probablemente se diga pronto
+    public void precalentar(String texto) {
+        if (texto == null || texto.trim().isEmpty()) return;
+        if (indice.containsKey(clave(texto)) || texto.equals(textoSintesis) || pendientes.contains(texto)) return;
+        // La cola da prioridad a lo último pedido y descarta lo más viejo
+        if (pendientes.size() >= MAX_PENDIENTES) pendientes.pollFirst();
+        pendientes.addLast(texto);
+        siguienteSintesis();
+    }
+
+    public void detener() {
+        if (reproductor != null && reproductor.isPlaying()) reproductor.stop();
+        if (idHablando != null) {
+            interrumpirSintesis();
+            tts.stop();
+            idHablando = null;
+        }
+    }
+
+    public void cerrar() {
+        detener();
+        interrumpirSintesis();
+        pendientes.clear();
+        if (reproductor != null) {
+            reproductor.release();
+            reproductor = null;
+        }
+        Log.d(TAG, resumen());
+    }
+
+    public String resumen() {
+        int total = aciertos + fallos;
+        return "aciertos=" + aciertos + " fallos=" + fallos
+                + " (" + (total == 0 ? 0 : aciertos * 100 / total) + "%)"
+                + " archivos=" + indice.size() + " KB=" + (bytesTotales / 1024)
+                + " sintetizadas=" + sintetizadas + " expulsadas=" + expulsadas
+                + " interrumpidas=" + interrumpidas;
+    }
+
+    private boolean reproducir(File archivo, String id) {
+        try {
+            if (reproductor == null) {
+                reproductor = new MediaPlayer();
+                reproductor.setOnCompletionListener(mp -> siguienteSintesis());
+            }
+            reproductor.reset();
+            reproductor.setDataSource(archivo.getPath());
+            reproductor.prepare();
+            reproductor.start();
+        } catch (IOException | IllegalStateException e) {
+            Log.w(TAG, "No se pudo reproducir " + archivo.getName(), e);
+            return false;
+        }
+        archivo.setLastModified(System.currentTimeMillis());
+        if (oyente != null) oyente.alEmpezar(id);
+        return true;
+    }
+
+    private void siguienteSintesis() {
+        if (idSintesis != null || idHablando != null || pendientes.isEmpty()) return;
+        textoSintesis = pendientes.pollLast();
+        idSintesis = PREFIJO_SINTESIS + (++contadorSintesis);
+        int resultado = tts.synthesizeToFile(textoSintesis, null, temporal(clave(textoSintesis)), idSintesis);
+        if (resultado != TextToSpeech.SUCCESS) {
+            Log.w(TAG, "No se pudo agendar la síntesis");
+            idSintesis = null;
+            textoSintesis = null;
+        }
+    }
+
+    private void alTerminar(String utteranceId, boolean ok) {
+        if (utteranceId.equals(idHablando)) {
+            idHablando = null;
+        } else if (utteranceId.equals(idSintesis)) {
+            String clave = clave(textoSintesis);
+            File temporal = temporal(clave);
+            File archivo = archivo(clave);
+            if (ok && temporal.length() > 0 && temporal.renameTo(archivo)) {
+                agregar(clave, archivo.length());
+                sintetizadas++;
+            } else {
+                temporal.delete();
+            }
+            idSintesis = null;
+            textoSintesis = null;
+        }
+        siguienteSintesis();
+    }
+
+    private void interrumpirSintesis() {
+        if (idSintesis == null) return;
+        temporal(clave(textoSintesis)).delete();
+        pendientes.addLast(textoSintesis);
+        interrumpidas++;
+        // Los callbacks tardíos de esta síntesis ya no coinciden con ningún id
+        idSintesis = null;
+        textoSintesis = null;
+    }
+
+    private void agregar(String clave, long bytes) {
+        indice.put(clave, bytes);
+        bytesTotales += bytes;
+        Iterator<Map.Entry<String, Long>> it = indice.entrySet().iterator();
+        while (bytesTotales > maxBytes && it.hasNext()) {
+            Map.Entry<String, Long> masViejo = it.next();
+            if (masViejo.getKey().equals(clave)) break;
+            archivo(masViejo.getKey()).delete();
+            bytesTotales -= masViejo.getValue();
+            it.remove();
+            expulsadas++;
+        }
+    }
+
+    private void quitar(String clave) {
+        Long bytes = indice.remove(clave);
+        if (bytes != null) bytesTotales -= bytes;
+        archivo(clave).delete();
+    }
+
+    // Reconstruye el LRU desde el disco: los archivos usados hace más tiempo van primero
+    private void cargarIndice() {
+        if (!directorio.isDirectory() && !directorio.mkdirs()) {
+            Log.w(TAG, "No se pudo crear " + directorio);
+            return;
+        }
+        File[] archivos = directorio.listFiles();
+        if (archivos == null) return;
+        Arrays.sort(archivos, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (File archivo : archivos) {
+            String nombre = archivo.getName();
+            if (nombre.endsWith(EXTENSION)) {
+                agregar(nombre.substring(0, nombre.length() - EXTENSION.length()), archivo.length());
+            } else {
+                archivo.delete(); // síntesis que no llegaron a terminar
+            }
+        }
+    }
+
+    private File archivo(String clave) {
+        return new File(directorio, clave + EXTENSION);
+    }
+
+    private File temporal(String clave) {
+        return new File(directorio, clave + ".tmp");
+    }
+
+    static String clave(String texto) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-1").digest(texto.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
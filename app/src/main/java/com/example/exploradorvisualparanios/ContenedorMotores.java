@@ -0,0 +1,253 @@
+package com.example.exploradorvisualparanios;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.os.Handler;
+import android.os.Looper;
+import android.speech.tts.TextToSpeech;
+import android.util.Log;
+
+import com.google.mlkit.nl.translate.TranslateLanguage;
+import com.google.mlkit.nl.translate.Translation;
+import com.google.mlkit.nl.translate.Translator;
+import com.google.mlkit.nl.translate.TranslatorOptions;
+import com.google.mlkit.vision.label.ImageLabeler;
+import com.google.mlkit.vision.label.ImageLabeling;
+import com.google.mlkit.vision.label.defaults.ImageLabelerOptions;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Dueño de los motores pesados a nivel de proceso (vive en ExploradorApp).
+// Cada motor se crea la primera vez que se pide y se reutiliza entre instancias
+// de MainActivity (rotación, modo oscuro, volver del selector de fotos).
+// Las Activities lo adquieren en onCreate y lo liberan en onDestroy; cuando
+// nadie lo usa durante INACTIVIDAD_MS se cierran todos los motores.
+public class ContenedorMotores {
+
+    private static final String TAG = "ContenedorMotores";
+    static final float CONFIDENCE_THRESHOLD = 0.85f;
+    private static final long INACTIVIDAD_MS = 30000;
+    private static final String ASSET_DATOS_CURIOSOS = "datos_curiosos.bin";
+    private static final String DIRECTORIO_VOZ = "voz";
+    private static final long MAX_BYTES_VOZ = 24 * 1024 * 1024;
+
+    private final Context context;
+    private final Instrumentacion instrumentacion;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable liberarPorInactividad = () -> {
+        Log.d(TAG, "Sin uso durante " + INACTIVIDAD_MS + " ms, cerrando motores");
+        cerrar();
+    };
+
+    private ImageLabeler imageLabeler;
+    private TextToSpeech tts;
+    private CacheVoz cacheVoz;
+    private boolean ttsListo = false;
+    private final List<Runnable> alTtsListo = new ArrayList<>();
+    private Translator translatorEnToEs;
+    private TraductorEtiquetas traductorEtiquetas;
+    private ExecutorService cameraExecutor;
+    private ExecutorService ioExecutor;
+    private ExecutorService resultadosExecutor;
+    // No se cierra con los motores: el mapeo no ocupa heap y conserva la rotación de datos
+    private DatosCuriosos datosCuriosos;
+
+    private int referencias = 0;
+    private Runnable alCerrar;
+
+    public ContenedorMotores(Context context, Instrumentacion instrumentacion) {
+        this.context = context.getApplicationContext();
+        this.instrumentacion = instrumentacion;
+    }
+
+    // --- Ciclo de vida (hilo principal) ---
+
+    public void adquirir() {
+        referencias++;
+        handler.removeCallbacks(liberarPorInactividad);
+    }
+
+    public void liberar() {
+        if (referencias == 0) return;
+        if (--referencias == 0) {
+            handler.postDelayed(liberarPorInactividad, INACTIVIDAD_MS);
+        }
+    }
+
+    // Se ejecuta en el hilo principal cada vez que se cierran los motores
+    public void setAlCerrar(Runnable alCerrar) {
+        this.alCerrar = alCerrar;
+    }
+
+    // Ante presión de memoria se cierra ya, sin esperar el tiempo de inactividad
+    public void liberarSiSinUso() {
+        if (referencias == 0) {
+            handler.removeCallbacks(liberarPorInactividad);
+            cerrar();
+        }
+    }
+
+    // Hilo principal
+    public void cerrar() {
+        cerrarMotores();
+        if (alCerrar != null) alCerrar.run();
+    }
+
+    private synchronized void cerrarMotores() {
+        if (cacheVoz != null) {
+            cacheVoz.cerrar();
+            cacheVoz = null;
+        }
+        if (tts != null) {
+            tts.stop();
+            tts.shutdown();
+            tts = null;
+            ttsListo = false;
+        }
+        if (translatorEnToEs != null) {
+            translatorEnToEs.close();
+            translatorEnToEs = null;
+            traductorEtiquetas = null;
+        }
+        if (imageLabeler != null) {
+            imageLabeler.close();
+            imageLabeler = null;
+        }
+        if (cameraExecutor != null) {
+            cameraExecutor.shutdown();
+            cameraExecutor = null;
+        }
+        if (ioExecutor != null) {
+            // shutdown() deja terminar las escrituras pendientes
+            ioExecutor.shutdown();
+            ioExecutor = null;
+        }
+        if (resultadosExecutor != null) {
+            resultadosExecutor.shutdown();
+            resultadosExecutor = null;
+        }
+    }
+
+    // --- Motores (creación perezosa) ---
+
+    public synchronized ImageLabeler getEtiquetador() {
+        if (imageLabeler == null) {
+            ImageLabelerOptions options = new ImageLabelerOptions.Builder()
+                    .setConfidenceThreshold(CONFIDENCE_THRESHOLD)
+                    .build();
+            imageLabeler = ImageLabeling.getClient(options);
+        }
+        return imageLabeler;
+    }
+
+    public synchronized TextToSpeech getTts() {
+        if (tts == null) {
+            tts = new TextToSpeech(context, this::onTtsInit);
+        }
+        return tts;
+    }
+
+    // Las frases sintetizadas quedan en disco y sobreviven al cierre de los motores
+    public synchronized CacheVoz getCacheVoz() {
+        if (cacheVoz == null) {
+            cacheVoz = new CacheVoz(getTts(), new File(context.getCacheDir(), DIRECTORIO_VOZ), MAX_BYTES_VOZ);
+        }
+        return cacheVoz;
+    }
+
+    // La acción corre en el hilo principal cuando el TTS terminó de inicializarse (bien o mal)
+    public synchronized void alInicializarTts(Runnable accion) {
+        getTts();
+        if (ttsListo) {
+            handler.post(accion);
+        } else {
+            alTtsListo.add(accion);
+        }
+    }
+
+    public synchronized Translator getTraductor() {
+        if (translatorEnToEs == null) {
+            TranslatorOptions translatorOptions = new TranslatorOptions.Builder()
+                    .setSourceLanguage(TranslateLanguage.ENGLISH)
+                    .setTargetLanguage(TranslateLanguage.SPANISH)
+                    .build();
+            translatorEnToEs = Translation.getClient(translatorOptions);
+        }
+        return translatorEnToEs;
+    }
+
+    public synchronized TraductorEtiquetas getTraductorEtiquetas() {
+        if (traductorEtiquetas == null) {
+            traductorEtiquetas = new TraductorEtiquetas(context, getTraductor(), getEjecutorResultados(),
+                    instrumentacion);
+        }
+        return traductorEtiquetas;
+    }
+
+    public synchronized DatosCuriosos getDatosCuriosos() {
+        if (datosCuriosos == null) {
+            try (AssetFileDescriptor afd = context.getAssets().openFd(ASSET_DATOS_CURIOSOS);
+                 FileInputStream in = afd.createInputStream()) {
+                // El mapeo sigue válido después de cerrar el archivo
+                datosCuriosos = new DatosCuriosos(in.getChannel().map(FileChannel.MapMode.READ_ONLY,
+                        afd.getStartOffset(), afd.getDeclaredLength()));
+                Log.d(TAG, "Datos curiosos: " + datosCuriosos.getCantidadEtiquetas() + " etiquetas");
+            } catch (IOException | IllegalArgumentException e) {
+                Log.e(TAG, "No se pudo abrir el índice de datos curiosos", e);
+                datosCuriosos = DatosCuriosos.vacio();
+            }
+        }
+        return datosCuriosos;
+    }
+
+    public synchronized ExecutorService getEjecutorCamara() {
+        if (cameraExecutor == null) {
+            cameraExecutor = Executors.newSingleThreadExecutor();
+        }
+        return cameraExecutor;
+    }
+
+    // Escrituras a disco que no deben frenar la cámara ni la UI (fotos a la galería)
+    public synchronized ExecutorService getEjecutorIo() {
+        if (ioExecutor == null) {
+            ioExecutor = Executors.newSingleThreadExecutor();
+        }
+        return ioExecutor;
+    }
+
+    // Un solo hilo para todo lo que va de las etiquetas a la vista: filtrar, traducir,
+    // buscar datos curiosos y armar textos. Lo que corre en él no necesita sincronizarse.
+    public synchronized ExecutorService getEjecutorResultados() {
+        if (resultadosExecutor == null) {
+            resultadosExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "resultados"));
+        }
+        return resultadosExecutor;
+    }
+
+    private void onTtsInit(int status) {
+        List<Runnable> pendientes;
+        synchronized (this) {
+            if (status == TextToSpeech.SUCCESS && tts != null) {
+                Locale spanish = new Locale("spa", "MX");
+                int result = tts.setLanguage(spanish);
+                if (result == TextToSpeech.LANG_MISSING_DATA || result == TextToSpeech.LANG_NOT_SUPPORTED) {
+                    Log.e("TTS", "El idioma español no está soportado.");
+                }
+            } else if (status != TextToSpeech.SUCCESS) {
+                Log.e("TTS", "Falló inicialización TTS.");
+            }
+            ttsListo = true;
+            pendientes = new ArrayList<>(alTtsListo);
+            alTtsListo.clear();
+        }
+        for (Runnable accion : pendientes) accion.run();
+    }
+}
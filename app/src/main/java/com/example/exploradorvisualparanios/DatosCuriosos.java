@@ -0,0 +1,118 @@
+package com.example.exploradorvisualparanios;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Índice binario de datos curiosos (asset datos_curiosos.bin, generado por la
+// tarea compilarDatosCuriosos de app/build.gradle.kts, donde está el formato).
+// Se lee directo del buffer mapeado: buscar una etiqueta es una tabla hash con
+// sondeo lineal que compara la clave byte a byte, sin cargar el corpus al heap
+// ni armar cadenas. Solo se crea un String al pedir un dato para mostrarlo.
+// Cada etiqueta puede tener varios datos y siguienteDato() los va rotando.
+public class DatosCuriosos {
+
+    static final int MAGIA = 0x44435552; // "DCUR"
+    static final int VERSION = 1;
+    static final int TAM_ENCABEZADO = 20;
+    static final int TAM_ETIQUETA = 16;
+
+    private final ByteBuffer buffer;
+    private final int cubetas;
+    private final int cantidadEtiquetas;
+    private final int inicioEtiquetas;
+    private final int inicioDatos;
+    private final int[] rotacion;
+
+    public DatosCuriosos(ByteBuffer buffer) {
+        if (buffer.limit() < TAM_ENCABEZADO || buffer.getInt(0) != MAGIA || buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Índice de datos curiosos inválido");
+        }
+        this.buffer = buffer;
+        this.cubetas = buffer.getInt(8);
+        this.cantidadEtiquetas = buffer.getInt(12);
+        this.inicioEtiquetas = TAM_ENCABEZADO + cubetas * 4;
+        this.inicioDatos = inicioEtiquetas + cantidadEtiquetas * TAM_ETIQUETA;
+        this.rotacion = new int[cantidadEtiquetas];
+    }
+
+    // Índice sin etiquetas, para cuando el asset no se pudo abrir
+    public static DatosCuriosos vacio() {
+        ByteBuffer buffer = ByteBuffer.allocate(TAM_ENCABEZADO + 4);
+        buffer.putInt(0, MAGIA).putInt(4, VERSION).putInt(8, 1);
+        return new DatosCuriosos(buffer);
+    }
+
+    public int getCantidadEtiquetas() {
+        return cantidadEtiquetas;
+    }
+
+    // Número de etiqueta en el índice, o -1 si no tiene datos. No distingue mayúsculas.
+    public int buscarEtiqueta(String etiquetaEnIngles) {
+        int hash = 0;
+        for (int i = 0; i < etiquetaEnIngles.length(); i++) {
+            hash = 31 * hash + Character.toLowerCase(etiquetaEnIngles.charAt(i));
+        }
+        int mascara = cubetas - 1;
+        for (int cubeta = hash & mascara; ; cubeta = (cubeta + 1) & mascara) {
+            int entrada = buffer.getInt(TAM_ENCABEZADO + cubeta * 4);
+            if (entrada == 0) return -1;
+            int etiqueta = entrada - 1;
+            int posicion = inicioEtiquetas + etiqueta * TAM_ETIQUETA;
+            if (buffer.getInt(posicion) == hash && claveIgual(buffer.getInt(posicion + 4), etiquetaEnIngles)) {
+                return etiqueta;
+            }
+        }
+    }
+
+    public int getCantidadDatos(int etiqueta) {
+        return buffer.getInt(inicioEtiquetas + etiqueta * TAM_ETIQUETA + 12);
+    }
+
+    public String getDato(int etiqueta, int n) {
+        int primerDato = buffer.getInt(inicioEtiquetas + etiqueta * TAM_ETIQUETA + 8);
+        return leerCadena(buffer.getInt(inicioDatos + (primerDato + n) * 4));
+    }
+
+    // Cada llamada devuelve el dato siguiente de la etiqueta, en ronda
+    public String siguienteDato(int etiqueta) {
+        int n;
+        synchronized (rotacion) {
+            n = rotacion[etiqueta];
+            rotacion[etiqueta] = (n + 1) % getCantidadDatos(etiqueta);
+        }
+        return getDato(etiqueta, n);
+    }
+
+    // El dato que devolverá la próxima llamada a siguienteDato(), sin avanzar la rotación
+    public String verSiguienteDato(int etiqueta) {
+        int n;
+        synchronized (rotacion) {
+            n = rotacion[etiqueta];
+        }
+        return getDato(etiqueta, n);
+    }
+
+    public String buscar(String etiquetaEnIngles) {
+        int etiqueta = buscarEtiqueta(etiquetaEnIngles);
+        return etiqueta < 0 ? null : siguienteDato(etiqueta);
+    }
+
+    // Las claves se guardan en minúsculas y en ASCII: un byte por carácter
+    private boolean claveIgual(int offset, String etiquetaEnIngles) {
+        int largo = buffer.getShort(offset) & 0xFFFF;
+        if (largo != etiquetaEnIngles.length()) return false;
+        for (int i = 0; i < largo; i++) {
+            if (buffer.get(offset + 2 + i) != Character.toLowerCase(etiquetaEnIngles.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    private String leerCadena(int offset) {
+        int largo = buffer.getShort(offset) & 0xFFFF;
+        byte[] bytes = new byte[largo];
+        ByteBuffer vista = buffer.duplicate();
+        vista.position(offset + 2);
+        vista.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.exploradorvisualparanios;
+
+import android.content.ContentResolver;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.net.Uri;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.exifinterface.media.ExifInterface;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+// Decodifica imágenes de galería o de la cámara una sola vez, ya reducidas al
+// tamaño en que se van a mostrar. El mismo bitmap sirve para ivImagen y para el
+// etiquetador. Los bitmaps que ya no se muestran vuelven a un pool pequeño y se
+// reutilizan con inBitmap en la siguiente imagen. Se puede usar desde varios
+// hilos a la vez (análisis por lotes); el pool está sincronizado.
+public class DecodificadorImagenes {
+
+    private static final String TAG = "DecodificadorImagenes";
+    private static final int TAMANO_POOL_POR_DEFECTO = 2;
+
+    public static class Resultado {
+        public final Bitmap bitmap;
+        public final int rotacion;
+        public final int muestreo;
+        public final long tiempoMs;
+        public final long bytes;
+        public final boolean reutilizado;
+
+        Resultado(Bitmap bitmap, int rotacion, int muestreo, long tiempoMs, long bytes, boolean reutilizado) {
+            this.bitmap = bitmap;
+            this.rotacion = rotacion;
+            this.muestreo = muestreo;
+            this.tiempoMs = tiempoMs;
+            this.bytes = bytes;
+            this.reutilizado = reutilizado;
+        }
+    }
+
+    private final ContentResolver resolver;
+    private final ArrayDeque<Bitmap> pool = new ArrayDeque<>();
+    private final int tamanoPool;
+
+    public DecodificadorImagenes(ContentResolver resolver) {
+        this(resolver, TAMANO_POOL_POR_DEFECTO);
+    }
+
+    public DecodificadorImagenes(ContentResolver resolver, int tamanoPool) {
+        this.resolver = resolver;
+        this.tamanoPool = tamanoPool;
+    }
+
+    public Resultado decodificar(Uri uri, int anchoDestino, int altoDestino) throws IOException {
+        return decodificar(opciones -> {
+            try (InputStream in = abrir(uri)) {
+                return BitmapFactory.decodeStream(in, null, opciones);
+            }
+        }, leerRotacion(uri), anchoDestino, altoDestino);
+    }
+
+    // JPEG ya en memoria (captura de la cámara); la rotación viene de la cámara, no del EXIF
+    public Resultado decodificar(byte[] jpeg, int rotacion, int anchoDestino, int altoDestino) throws IOException {
+        return decodificar(opciones -> BitmapFactory.decodeByteArray(jpeg, 0, jpeg.length, opciones),
+                rotacion, anchoDestino, altoDestino);
+    }
+
+    private interface Origen {
+        Bitmap decodificar(BitmapFactory.Options opciones) throws IOException;
+    }
+
+    private Resultado decodificar(Origen origen, int rotacion, int anchoDestino, int altoDestino) throws IOException {
+        long inicio = SystemClock.elapsedRealtime();
+
+        // 1) Solo dimensiones, sin reservar memoria para los píxeles
+        BitmapFactory.Options opciones = new BitmapFactory.Options();
+        opciones.inJustDecodeBounds = true;
+        origen.decodificar(opciones);
+        if (opciones.outWidth <= 0 || opciones.outHeight <= 0) {
+            throw new IOException("No se pudo leer el tamaño de la imagen");
+        }
+
+        if (rotacion == 90 || rotacion == 270) {
+            int tmp = anchoDestino;
+            anchoDestino = altoDestino;
+            altoDestino = tmp;
+        }
+
+        // 2) Una sola decodificación ya reducida, reutilizando memoria del pool si se puede
+        int muestreo = calcularMuestreo(opciones.outWidth, opciones.outHeight, anchoDestino, altoDestino);
+        int ancho = (opciones.outWidth + muestreo - 1) / muestreo;
+        int alto = (opciones.outHeight + muestreo - 1) / muestreo;
+
+        opciones.inJustDecodeBounds = false;
+        opciones.inSampleSize = muestreo;
+        opciones.inMutable = true;
+        opciones.inPreferredConfig = Bitmap.Config.ARGB_8888;
+        opciones.inBitmap = tomarDelPool((long) ancho * alto * 4);
+
+        Bitmap bitmap;
+        try {
+            bitmap = origen.decodificar(opciones);
+        } catch (IllegalArgumentException e) {
+            // El bitmap del pool no era compatible; se decodifica sin reutilizar
+            opciones.inBitmap = null;
+            bitmap = origen.decodificar(opciones);
+        }
+        if (bitmap == null) {
+            throw new IOException("No se pudo decodificar la imagen");
+        }
+
+        long tiempoMs = SystemClock.elapsedRealtime() - inicio;
+        long bytes = bitmap.getAllocationByteCount();
+        boolean reutilizado = opciones.inBitmap != null;
+        Log.d(TAG, "Decodificada " + opciones.outWidth + "x" + opciones.outHeight + " -> "
+                + bitmap.getWidth() + "x" + bitmap.getHeight() + " (muestreo " + muestreo + ") en "
+                + tiempoMs + " ms, " + (bytes / 1024) + " KB" + (reutilizado ? " reutilizando bitmap" : ""));
+        return new Resultado(bitmap, rotacion, muestreo, tiempoMs, bytes, reutilizado);
+    }
+
+    // Devuelve al pool un bitmap que ya no se muestra ni se está analizando
+    public synchronized void liberar(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled() || !bitmap.isMutable()) return;
+        if (pool.size() >= tamanoPool) {
+            pool.pollFirst();
+        }
+        pool.addLast(bitmap);
+    }
+
+    // Mayor potencia de 2 que deja la imagen igual o más grande que el destino
+    static int calcularMuestreo(int ancho, int alto, int anchoDestino, int altoDestino) {
+        int muestreo = 1;
+        if (anchoDestino <= 0 || altoDestino <= 0) return muestreo;
+        while ((ancho / (muestreo * 2)) >= anchoDestino && (alto / (muestreo * 2)) >= altoDestino) {
+            muestreo *= 2;
+        }
+        return muestreo;
+    }
+
+    private synchronized Bitmap tomarDelPool(long bytesNecesarios) {
+        Iterator<Bitmap> it = pool.iterator();
+        while (it.hasNext()) {
+            Bitmap candidato = it.next();
+            if (candidato.getAllocationByteCount() >= bytesNecesarios) {
+                it.remove();
+                return candidato;
+            }
+        }
+        return null;
+    }
+
+    private int leerRotacion(Uri uri) {
+        try (InputStream in = abrir(uri)) {
+            return new ExifInterface(in).getRotationDegrees();
+        } catch (IOException e) {
+            Log.w(TAG, "No se pudo leer la orientación EXIF", e);
+            return 0;
+        }
+    }
+
+    private InputStream abrir(Uri uri) throws IOException {
+        InputStream in = resolver.openInputStream(uri);
+        if (in == null) throw new IOException("No se pudo abrir " + uri);
+        return in;
+    }
+}
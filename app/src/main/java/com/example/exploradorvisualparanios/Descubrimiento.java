@@ -0,0 +1,40 @@
+package com.example.exploradorvisualparanios;
+
+// Una entrada de la bitácora de descubrimientos
+public final class Descubrimiento {
+
+    public static final int ORIGEN_VIVO = 0;
+    public static final int ORIGEN_FOTO = 1;
+    public static final int ORIGEN_GALERIA = 2;
+    public static final int ORIGEN_LOTE = 3;
+
+    public static final long SIN_MINIATURA = -1;
+
+    public final String etiqueta;
+    public final String ingles;
+    public final float confianza;
+    public final long instanteMs;
+    public final int origen;
+    // Offset en AlmacenMiniaturas, o SIN_MINIATURA
+    public final long miniatura;
+
+    public Descubrimiento(String etiqueta, String ingles, float confianza, long instanteMs, int origen,
+                          long miniatura) {
+        this.etiqueta = etiqueta;
+        this.ingles = ingles;
+        this.confianza = confianza;
+        this.instanteMs = instanteMs;
+        this.origen = origen;
+        this.miniatura = miniatura;
+    }
+
+    public static String nombreOrigen(int origen) {
+        switch (origen) {
+            case ORIGEN_VIVO: return "en vivo";
+            case ORIGEN_FOTO: return "foto";
+            case ORIGEN_GALERIA: return "galería";
+            case ORIGEN_LOTE: return "lote";
+            default: return "?";
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.exploradorvisualparanios;
+
+import java.nio.ByteBuffer;
+
+// Decide si vale la pena etiquetar un frame. Resume el plano Y (luminancia) en
+// una cuadrícula pequeña de promedios y la compara con la del último frame
+// analizado: si la diferencia media no supera el umbral, la escena no cambió y
+// el frame se omite, salvo que haya pasado demasiado tiempo sin analizar.
+public class DetectorCambioEscena {
+
+    private static final int COLUMNAS = 16;
+    private static final int FILAS = 12;
+    // Píxeles muestreados por lado dentro de cada celda
+    private static final int MUESTRAS = 4;
+
+    private final int umbral;
+    private final long maxSinAnalizarMs;
+
+    private final int[] firmaActual = new int[COLUMNAS * FILAS];
+    private final int[] firmaReferencia = new int[COLUMNAS * FILAS];
+    private boolean hayReferencia = false;
+    private long ultimoAnalisisMs = 0;
+    private int ultimaDiferencia = 0;
+
+    private long analizados = 0;
+    private long omitidos = 0;
+
+    // umbral: diferencia media de luminancia (0-255) a partir de la cual la escena cambió
+    public DetectorCambioEscena(int umbral, long maxSinAnalizarMs) {
+        this.umbral = umbral;
+        this.maxSinAnalizarMs = maxSinAnalizarMs;
+    }
+
+    public synchronized boolean debeAnalizar(ByteBuffer planoY, int ancho, int alto,
+                                             int rowStride, int pixelStride, long ahoraMs) {
+        calcularFirma(planoY, ancho, alto, rowStride, pixelStride, firmaActual);
+
+        boolean analizar;
+        if (!hayReferencia || ahoraMs - ultimoAnalisisMs >= maxSinAnalizarMs) {
+            analizar = true;
+            ultimaDiferencia = -1;
+        } else {
+            ultimaDiferencia = diferenciaMedia(firmaActual, firmaReferencia);
+            analizar = ultimaDiferencia >= umbral;
+        }
+
+        if (analizar) {
+            // La referencia es el último frame analizado, así los cambios lentos se acumulan
+            System.arraycopy(firmaActual, 0, firmaReferencia, 0, firmaActual.length);
+            hayReferencia = true;
+            ultimoAnalisisMs = ahoraMs;
+            analizados++;
+        } else {
+            omitidos++;
+        }
+        return analizar;
+    }
+
+    public synchronized void reiniciar() {
+        hayReferencia = false;
+        analizados = 0;
+        omitidos = 0;
+    }
+
+    public synchronized long getAnalizados() {
+        return analizados;
+    }
+
+    public synchronized long getOmitidos() {
+        return omitidos;
+    }
+
+    public synchronized String resumen() {
+        long total = analizados + omitidos;
+        int porcentaje = total > 0 ? (int) (omitidos * 100 / total) : 0;
+        return "analizados=" + analizados + " omitidos=" + omitidos + " (" + porcentaje + "%)"
+                + " últimaDiferencia=" + ultimaDiferencia + " umbral=" + umbral;
+    }
+
+    static void calcularFirma(ByteBuffer planoY, int ancho, int alto, int rowStride, int pixelStride, int[] firma) {
+        int anchoCelda = ancho / COLUMNAS;
+        int altoCelda = alto / FILAS;
+        int pasoX = Math.max(1, anchoCelda / MUESTRAS);
+        int pasoY = Math.max(1, altoCelda / MUESTRAS);
+
+        for (int fila = 0; fila < FILAS; fila++) {
+            for (int col = 0; col < COLUMNAS; col++) {
+                int suma = 0;
+                int n = 0;
+                int y0 = fila * altoCelda + pasoY / 2;
+                int x0 = col * anchoCelda + pasoX / 2;
+                for (int dy = 0; dy < MUESTRAS; dy++) {
+                    int base = (y0 + dy * pasoY) * rowStride;
+                    for (int dx = 0; dx < MUESTRAS; dx++) {
+                        suma += planoY.get(base + (x0 + dx * pasoX) * pixelStride) & 0xFF;
+                        n++;
+                    }
+                }
+                firma[fila * COLUMNAS + col] = suma / n;
+            }
+        }
+    }
+
+    static int diferenciaMedia(int[] a, int[] b) {
+        int suma = 0;
+        for (int i = 0; i < a.length; i++) {
+            suma += Math.abs(a[i] - b[i]);
+        }
+        return suma / a.length;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.exploradorvisualparanios;
+
+import java.util.Arrays;
+
+// Suaviza las etiquetas del análisis en vivo. Cada etiqueta lleva una media
+// móvil exponencial de su confianza (0 en los frames donde no aparece) y solo
+// se considera "estable" al superar el umbral de entrada. Deja de serlo al caer
+// bajo el umbral de salida o si no se ve durante la ventana de tiempo; recién
+// entonces puede volver a anunciarse. Así una etiqueta que parpadea cerca del
+// umbral de confianza no dispara traducción, UI y voz en cada frame.
+//
+// El estado vive en arreglos primitivos indexados por ImageLabel.getIndex() y
+// una lista compacta de índices seguidos, así un frame no reserva memoria.
+public class EstabilizadorEtiquetas {
+
+    private static final int CAPACIDAD_INICIAL = 512;
+
+    private final float alfa;
+    private final float umbralEntrada;
+    private final float umbralSalida;
+    private final long ventanaMs;
+
+    private float[] media = new float[CAPACIDAD_INICIAL];
+    private float[] ultimaConfianza = new float[CAPACIDAD_INICIAL];
+    private long[] ultimaVezVisto = new long[CAPACIDAD_INICIAL];
+    private boolean[] estable = new boolean[CAPACIDAD_INICIAL];
+    private boolean[] vistoEnFrame = new boolean[CAPACIDAD_INICIAL];
+    private boolean[] seguida = new boolean[CAPACIDAD_INICIAL];
+
+    private final int[] seguidas;
+    private int cantidadSeguidas = 0;
+    private long ahora = 0;
+
+    private int entradas = 0;
+    private int salidas = 0;
+    private int observaciones = 0;
+
+    public EstabilizadorEtiquetas(float alfa, float umbralEntrada, float umbralSalida, long ventanaMs, int maxEtiquetas) {
+        this.alfa = alfa;
+        this.umbralEntrada = umbralEntrada;
+        this.umbralSalida = umbralSalida;
+        this.ventanaMs = ventanaMs;
+        this.seguidas = new int[maxEtiquetas];
+    }
+
+    public void iniciarFrame(long ahoraMs) {
+        ahora = ahoraMs;
+    }
+
+    public void observar(int indice, float confianza) {
+        observaciones++;
+        if (indice >= media.length) crecer(indice);
+        if (!seguida[indice]) {
+            if (cantidadSeguidas >= seguidas.length && !expulsarCandidato()) return;
+            seguida[indice] = true;
+            media[indice] = 0f;
+            estable[indice] = false;
+            seguidas[cantidadSeguidas++] = indice;
+        }
+        vistoEnFrame[indice] = true;
+        ultimaConfianza[indice] = confianza;
+        ultimaVezVisto[indice] = ahora;
+    }
+
+    // Actualiza las medias y escribe en nuevasEstables (de mayor a menor confianza) las
+    // etiquetas que acaban de estabilizarse. Si no caben, esperan al frame siguiente.
+    public int cerrarFrame(int[] nuevasEstables) {
+        int cantidad = 0;
+        int i = 0;
+        while (i < cantidadSeguidas) {
+            int indice = seguidas[i];
+            float observacion = vistoEnFrame[indice] ? ultimaConfianza[indice] : 0f;
+            media[indice] += alfa * (observacion - media[indice]);
+            vistoEnFrame[indice] = false;
+
+            boolean fueraDeVentana = ahora - ultimaVezVisto[indice] > ventanaMs;
+            if (estable[indice]) {
+                if (media[indice] < umbralSalida || fueraDeVentana) {
+                    estable[indice] = false;
+                    salidas++;
+                }
+            } else if (media[indice] >= umbralEntrada && !fueraDeVentana && cantidad < nuevasEstables.length) {
+                estable[indice] = true;
+                entradas++;
+                cantidad = insertarPorConfianza(nuevasEstables, cantidad, indice);
+            }
+
+            if (!estable[indice] && (media[indice] < umbralSalida || fueraDeVentana)) {
+                quitar(i);
+            } else {
+                i++;
+            }
+        }
+        return cantidad;
+    }
+
+    public float getUltimaConfianza(int indice) {
+        return ultimaConfianza[indice];
+    }
+
+    public void reiniciar() {
+        for (int i = 0; i < cantidadSeguidas; i++) {
+            int indice = seguidas[i];
+            seguida[indice] = false;
+            estable[indice] = false;
+            vistoEnFrame[indice] = false;
+        }
+        cantidadSeguidas = 0;
+        entradas = 0;
+        salidas = 0;
+        observaciones = 0;
+    }
+
+    public String resumen() {
+        return "observaciones=" + observaciones + " entradas=" + entradas + " salidas=" + salidas
+                + " seguidas=" + cantidadSeguidas;
+    }
+
+    private int insertarPorConfianza(int[] destino, int cantidad, int indice) {
+        int pos = cantidad;
+        while (pos > 0 && ultimaConfianza[destino[pos - 1]] < ultimaConfianza[indice]) {
+            destino[pos] = destino[pos - 1];
+            pos--;
+        }
+        destino[pos] = indice;
+        return cantidad + 1;
+    }
+
+    private void quitar(int posicion) {
+        int indice = seguidas[posicion];
+        seguida[indice] = false;
+        estable[indice] = false;
+        vistoEnFrame[indice] = false;
+        seguidas[posicion] = seguidas[--cantidadSeguidas];
+    }
+
+    // Hace lugar descartando el candidato no estable con menor media
+    private boolean expulsarCandidato() {
+        int peor = -1;
+        for (int i = 0; i < cantidadSeguidas; i++) {
+            int indice = seguidas[i];
+            if (!estable[indice] && (peor == -1 || media[indice] < media[seguidas[peor]])) peor = i;
+        }
+        if (peor == -1) return false;
+        quitar(peor);
+        return true;
+    }
+
+    private void crecer(int indice) {
+        int capacidad = Math.max(indice + 1, media.length * 2);
+        media = Arrays.copyOf(media, capacidad);
+        ultimaConfianza = Arrays.copyOf(ultimaConfianza, capacidad);
+        ultimaVezVisto = Arrays.copyOf(ultimaVezVisto, capacidad);
+        estable = Arrays.copyOf(estable, capacidad);
+        vistoEnFrame = Arrays.copyOf(vistoEnFrame, capacidad);
+        seguida = Arrays.copyOf(seguida, capacidad);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.exploradorvisualparanios;
+
+import java.util.concurrent.Executor;
+
+// Etiquetado de un frame en vivo. En el equipo es ML Kit (EtiquetadorMlKit);
+// en las pruebas de JVM, un etiquetador con respuestas guionadas.
+public interface Etiquetador {
+
+    // Se lee por índice, igual que la lista de ImageLabel
+    interface Etiquetas {
+        int cantidad();
+
+        int indice(int i);
+
+        String texto(int i);
+
+        float confianza(int i);
+    }
+
+    // alEmpezar() llega justo antes de que empiece la inferencia, en cualquier hilo.
+    // Después se llama exactamente uno de los otros dos, una vez, en el ejecutor pedido.
+    interface Callback {
+        void alEmpezar();
+
+        void alEtiquetar(Etiquetas etiquetas);
+
+        void alFallar(Exception e);
+    }
+
+    void etiquetar(FrameYuv frame, Executor ejecutor, Callback callback);
+}
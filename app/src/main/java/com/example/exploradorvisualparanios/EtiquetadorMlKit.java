@@ -0,0 +1,74 @@
+package com.example.exploradorvisualparanios;
+
+import com.google.mlkit.vision.common.InputImage;
+import com.google.mlkit.vision.label.ImageLabel;
+import com.google.mlkit.vision.label.ImageLabeler;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+// Etiquetador de ML Kit. Los frames de la cámara van sin copiar (media Image);
+// los de una grabación, como NV21. ML Kit corre de a una las tareas de un mismo
+// ImageLabeler; PipelineEnVivo le pasa un frame a la vez, así no hay cola propia.
+public class EtiquetadorMlKit implements Etiquetador {
+
+    private final ImageLabeler etiquetador;
+
+    public EtiquetadorMlKit(ImageLabeler etiquetador) {
+        this.etiquetador = etiquetador;
+    }
+
+    @Override
+    public void etiquetar(FrameYuv frame, Executor ejecutor, Callback callback) {
+        InputImage imagen = aInputImage(frame);
+        if (imagen == null) {
+            ejecutor.execute(() -> callback.alFallar(new IllegalArgumentException("Frame sin imagen")));
+            return;
+        }
+        callback.alEmpezar();
+        etiquetador.process(imagen)
+                .addOnSuccessListener(ejecutor, labels -> callback.alEtiquetar(new EtiquetasMlKit(labels)))
+                .addOnFailureListener(ejecutor, callback::alFallar);
+    }
+
+    private static InputImage aInputImage(FrameYuv frame) {
+        if (frame instanceof FrameCamara) {
+            @androidx.camera.core.ExperimentalGetImage
+            android.media.Image mediaImage = ((FrameCamara) frame).getImageProxy().getImage();
+            return mediaImage == null ? null : InputImage.fromMediaImage(mediaImage, frame.getRotacion());
+        }
+        if (frame instanceof FrameGrabado) {
+            return InputImage.fromByteArray(((FrameGrabado) frame).getNv21(), frame.getAncho(), frame.getAlto(),
+                    frame.getRotacion(), InputImage.IMAGE_FORMAT_NV21);
+        }
+        return null;
+    }
+
+    private static final class EtiquetasMlKit implements Etiquetas {
+        private final List<ImageLabel> labels;
+
+        EtiquetasMlKit(List<ImageLabel> labels) {
+            this.labels = labels;
+        }
+
+        @Override
+        public int cantidad() {
+            return labels.size();
+        }
+
+        @Override
+        public int indice(int i) {
+            return labels.get(i).getIndex();
+        }
+
+        @Override
+        public String texto(int i) {
+            return labels.get(i).getText();
+        }
+
+        @Override
+        public float confianza(int i) {
+            return labels.get(i).getConfidence();
+        }
+    }
+}
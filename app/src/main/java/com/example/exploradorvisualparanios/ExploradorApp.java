@@ -0,0 +1,48 @@
+package com.example.exploradorvisualparanios;
+
+import android.app.Application;
+import android.content.ComponentCallbacks2;
+
+import java.io.File;
+
+public class ExploradorApp extends Application {
+
+    private Instrumentacion instrumentacion;
+    private ContenedorMotores motores;
+    private ArranqueMotores arranque;
+    private BitacoraDescubrimientos bitacora;
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        instrumentacion = new Instrumentacion();
+        motores = new ContenedorMotores(this, instrumentacion);
+        arranque = new ArranqueMotores(motores);
+        // Se abre en su propio hilo
+        bitacora = new BitacoraDescubrimientos(new File(getFilesDir(), "descubrimientos"));
+    }
+
+    public ContenedorMotores getMotores() {
+        return motores;
+    }
+
+    public Instrumentacion getInstrumentacion() {
+        return instrumentacion;
+    }
+
+    public ArranqueMotores getArranque() {
+        return arranque;
+    }
+
+    public BitacoraDescubrimientos getBitacora() {
+        return bitacora;
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND) {
+            motores.liberarSiSinUso();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.exploradorvisualparanios;
+
+import androidx.camera.core.ImageProxy;
+
+import java.nio.ByteBuffer;
+
+// FrameYuv sobre un ImageProxy de CameraX, sin copiar los planos
+public class FrameCamara implements FrameYuv {
+
+    private final ImageProxy imagen;
+    private final ImageProxy.PlaneProxy[] planos;
+    private final long instanteMs;
+
+    public FrameCamara(ImageProxy imagen) {
+        this.imagen = imagen;
+        this.planos = imagen.getPlanes();
+        // Instante de captura del sensor, no de llegada al analizador
+        this.instanteMs = imagen.getImageInfo().getTimestamp() / 1000000;
+    }
+
+    public ImageProxy getImageProxy() {
+        return imagen;
+    }
+
+    @Override
+    public long getInstanteMs() {
+        return instanteMs;
+    }
+
+    @Override
+    public int getAncho() {
+        return imagen.getWidth();
+    }
+
+    @Override
+    public int getAlto() {
+        return imagen.getHeight();
+    }
+
+    @Override
+    public int getRotacion() {
+        return imagen.getImageInfo().getRotationDegrees();
+    }
+
+    @Override
+    public ByteBuffer getPlano(int plano) {
+        return planos[plano].getBuffer();
+    }
+
+    @Override
+    public int getRowStride(int plano) {
+        return planos[plano].getRowStride();
+    }
+
+    @Override
+    public int getPixelStride(int plano) {
+        return planos[plano].getPixelStride();
+    }
+
+    @Override
+    public void cerrar() {
+        imagen.close();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.exploradorvisualparanios;
+
+import java.nio.ByteBuffer;
+
+// Frame leído de una grabación: NV21 compacto (Y sin relleno y después V/U
+// intercalados a media resolución), así los planos son vistas del mismo arreglo
+public class FrameGrabado implements FrameYuv {
+
+    private final long instanteMs;
+    private final int ancho;
+    private final int alto;
+    private final int rotacion;
+    private final byte[] nv21;
+    private final ByteBuffer[] planos = new ByteBuffer[3];
+
+    public FrameGrabado(long instanteMs, int ancho, int alto, int rotacion, byte[] nv21) {
+        this.instanteMs = instanteMs;
+        this.ancho = ancho;
+        this.alto = alto;
+        this.rotacion = rotacion;
+        this.nv21 = nv21;
+        int luma = ancho * alto;
+        planos[0] = ByteBuffer.wrap(nv21, 0, luma).slice();
+        planos[1] = ByteBuffer.wrap(nv21, luma + 1, nv21.length - luma - 1).slice();
+        planos[2] = ByteBuffer.wrap(nv21, luma, nv21.length - luma).slice();
+    }
+
+    public static int tamanoNv21(int ancho, int alto) {
+        return ancho * alto + 2 * ((ancho + 1) / 2) * ((alto + 1) / 2);
+    }
+
+    public byte[] getNv21() {
+        return nv21;
+    }
+
+    @Override
+    public long getInstanteMs() {
+        return instanteMs;
+    }
+
+    @Override
+    public int getAncho() {
+        return ancho;
+    }
+
+    @Override
+    public int getAlto() {
+        return alto;
+    }
+
+    @Override
+    public int getRotacion() {
+        return rotacion;
+    }
+
+    @Override
+    public ByteBuffer getPlano(int plano) {
+        return planos[plano];
+    }
+
+    @Override
+    public int getRowStride(int plano) {
+        return plano == 0 ? ancho : 2 * ((ancho + 1) / 2);
+    }
+
+    @Override
+    public int getPixelStride(int plano) {
+        return plano == 0 ? 1 : 2;
+    }
+
+    @Override
+    public void cerrar() {
+    }
+}
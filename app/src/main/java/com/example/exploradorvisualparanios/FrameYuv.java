@@ -0,0 +1,27 @@
+package com.example.exploradorvisualparanios;
+
+import java.nio.ByteBuffer;
+
+// Un frame YUV 4:2:0 en vivo, venga de la cámara (FrameCamara) o de una
+// grabación (FrameGrabado). Los planos se leen con get absoluto, como en
+// ImageProxy: 0 = Y, 1 = U, 2 = V. Quien lo recibe tiene que cerrarlo.
+public interface FrameYuv {
+
+    // Instante de captura en el reloj del sensor (elapsedRealtime o uptime según el
+    // equipo); en una grabación, el grabado. Solo se compara con el de otros frames.
+    long getInstanteMs();
+
+    int getAncho();
+
+    int getAlto();
+
+    int getRotacion();
+
+    ByteBuffer getPlano(int plano);
+
+    int getRowStride(int plano);
+
+    int getPixelStride(int plano);
+
+    void cerrar();
+}
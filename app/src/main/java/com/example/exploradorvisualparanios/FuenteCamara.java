@@ -0,0 +1,42 @@
+package com.example.exploradorvisualparanios;
+
+import androidx.camera.core.ImageAnalysis;
+
+import java.util.concurrent.Executor;
+
+// Frames de ImageAnalysis. Cuando la política de resolución reemplaza el caso de
+// uso, el receptor pasa solo al ImageAnalysis nuevo. Solo hilo principal.
+public class FuenteCamara implements FuenteFrames {
+
+    private final Executor ejecutor;
+    private ImageAnalysis analisis;
+    private Receptor receptor;
+
+    public FuenteCamara(Executor ejecutor) {
+        this.ejecutor = ejecutor;
+    }
+
+    public void setAnalisis(ImageAnalysis analisis) {
+        if (this.analisis != null) this.analisis.clearAnalyzer();
+        this.analisis = analisis;
+        conectar();
+    }
+
+    @Override
+    public void iniciar(Receptor receptor) {
+        this.receptor = receptor;
+        conectar();
+    }
+
+    @Override
+    public void detener() {
+        receptor = null;
+        if (analisis != null) analisis.clearAnalyzer();
+    }
+
+    private void conectar() {
+        if (analisis == null || receptor == null) return;
+        Receptor destino = receptor;
+        analisis.setAnalyzer(ejecutor, imagen -> destino.alRecibir(new FrameCamara(imagen)));
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.exploradorvisualparanios;
+
+// De dónde salen los frames del análisis en vivo: la cámara (FuenteCamara) o
+// una grabación (ReproductorFrames). El pipeline no distingue entre las dos.
+public interface FuenteFrames {
+
+    interface Receptor {
+        // En el hilo de la fuente; el receptor es dueño del frame y debe cerrarlo
+        void alRecibir(FrameYuv frame);
+    }
+
+    void iniciar(Receptor receptor);
+
+    void detener();
+}
@@ -0,0 +1,132 @@
+package com.example.exploradorvisualparanios;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+// Ajusta el análisis en vivo al estado térmico y de batería. Con cada lectura de
+// las señales calcula una severidad (NORMAL a CRITICO) y sus límites: intervalo
+// mínimo entre análisis y nivel máximo de resolución.
+// Subir de severidad es inmediato; bajar espera ESPERA_PARA_BAJAR_MS con señales
+// más tranquilas, para no oscilar en el borde de un umbral. Cada cambio queda
+// en el historial como una Decision con su motivo.
+public class GobernadorAnalisis {
+
+    public static final int NORMAL = 0;
+    public static final int MODERADO = 1;
+    public static final int FUERTE = 2;
+    public static final int CRITICO = 3;
+
+    // Límites por severidad
+    private static final long[] INTERVALO_MINIMO_MS = {0, 250, 500, 1000};
+    private static final int[] NIVEL_MAXIMO_RESOLUCION = topesDeResolucion();
+
+    // Valores de PowerManager.THERMAL_STATUS_*
+    private static final int TERMICO_MODERADO = 2;
+    private static final int TERMICO_SEVERO = 3;
+    private static final int TERMICO_CRITICO = 4;
+    private static final int BATERIA_BAJA = 30;
+    private static final int BATERIA_MUY_BAJA = 15;
+    static final long ESPERA_PARA_BAJAR_MS = 30000;
+    private static final int MAX_HISTORIAL = 32;
+
+    public static final class Decision {
+        public final long instanteMs;
+        public final int severidad;
+        public final long intervaloMinimoMs;
+        public final int nivelMaximoResolucion;
+        public final String motivo;
+
+        Decision(long instanteMs, int severidad, String motivo) {
+            this.instanteMs = instanteMs;
+            this.severidad = severidad;
+            this.intervaloMinimoMs = INTERVALO_MINIMO_MS[severidad];
+            this.nivelMaximoResolucion = NIVEL_MAXIMO_RESOLUCION[severidad];
+            this.motivo = motivo;
+        }
+
+        @Override
+        public String toString() {
+            return "severidad " + severidad + " (" + motivo + "): intervalo " + intervaloMinimoMs
+                    + " ms, nivel máximo " + (nivelMaximoResolucion + 1);
+        }
+    }
+
+    private final SenalesEnergia senales;
+    private final ArrayDeque<Decision> historial = new ArrayDeque<>();
+    private Decision actual;
+    // Desde cuándo las señales piden menos severidad que la actual (-1 = no lo piden)
+    private long calmaDesdeMs = -1;
+
+    public GobernadorAnalisis(SenalesEnergia senales) {
+        this.senales = senales;
+        this.actual = new Decision(0, NORMAL, "inicio");
+    }
+
+    // Lee las señales; devuelve la decisión nueva si cambió la severidad, o null
+    public synchronized Decision evaluar(long ahoraMs) {
+        StringBuilder motivo = new StringBuilder();
+        int severidad = severidad(motivo);
+        if (severidad == actual.severidad) {
+            calmaDesdeMs = -1;
+            return null;
+        }
+        if (severidad < actual.severidad) {
+            if (calmaDesdeMs < 0) calmaDesdeMs = ahoraMs;
+            if (ahoraMs - calmaDesdeMs < ESPERA_PARA_BAJAR_MS) return null;
+        }
+        calmaDesdeMs = -1;
+        actual = new Decision(ahoraMs, severidad, motivo.length() > 0 ? motivo.toString() : "normal");
+        if (historial.size() == MAX_HISTORIAL) historial.pollFirst();
+        historial.addLast(actual);
+        return actual;
+    }
+
+    public synchronized Decision getActual() {
+        return actual;
+    }
+
+    public synchronized List<Decision> getHistorial() {
+        return new ArrayList<>(historial);
+    }
+
+    // La severidad es la mayor que pida alguna señal; el motivo las nombra a todas
+    private int severidad(StringBuilder motivo) {
+        int severidad = NORMAL;
+
+        int termico = senales.getEstadoTermico();
+        int porTemperatura = termico >= TERMICO_CRITICO ? CRITICO
+                : termico >= TERMICO_SEVERO ? FUERTE
+                : termico >= TERMICO_MODERADO ? MODERADO : NORMAL;
+        if (porTemperatura > NORMAL) {
+            severidad = porTemperatura;
+            agregarMotivo(motivo, "térmico " + termico);
+        }
+
+        int bateria = senales.getNivelBateria();
+        if (bateria >= 0 && bateria <= BATERIA_BAJA && !senales.estaCargando()) {
+            severidad = Math.max(severidad, bateria <= BATERIA_MUY_BAJA ? FUERTE : MODERADO);
+            agregarMotivo(motivo, "batería " + bateria + "%");
+        }
+
+        if (senales.enAhorroDeEnergia()) {
+            severidad = Math.max(severidad, MODERADO);
+            agregarMotivo(motivo, "ahorro de energía");
+        }
+        return severidad;
+    }
+
+    // Un nivel de resolución menos por cada grado de severidad, sin bajar del primero
+    private static int[] topesDeResolucion() {
+        int[] topes = new int[CRITICO + 1];
+        for (int severidad = NORMAL; severidad <= CRITICO; severidad++) {
+            topes[severidad] = Math.max(0, PoliticaResolucion.NIVELES.length - 1 - severidad);
+        }
+        return topes;
+    }
+
+    private static void agregarMotivo(StringBuilder motivo, String parte) {
+        if (motivo.length() > 0) motivo.append(", ");
+        motivo.append(parte);
+    }
+}
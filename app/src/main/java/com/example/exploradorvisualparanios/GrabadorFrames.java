@@ -0,0 +1,113 @@
+package com.example.exploradorvisualparanios;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+// Graba los frames que pasan hacia el pipeline para reproducirlos después con
+// ReproductorFrames. Se pone delante del receptor real y le pasa cada frame
+// intacto. Formato (enteros big-endian, todo comprimido con deflate):
+//   encabezado: magia "FRMS", versión
+//   por frame:  instante (long, ms), ancho, alto, rotación, NV21 compacto
+// Si falla la escritura deja de grabar sin cortar el análisis; cerrar() informa
+// el error.
+public class GrabadorFrames implements FuenteFrames.Receptor {
+
+    static final int MAGIA = 0x46524D53; // "FRMS"
+    static final int VERSION = 1;
+
+    private final FuenteFrames.Receptor siguiente;
+    private final DataOutputStream salida;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    // Solo hilo de la fuente
+    private byte[] nv21 = new byte[0];
+    private int grabados = 0;
+    private IOException error;
+
+    public GrabadorFrames(File archivo, FuenteFrames.Receptor siguiente) throws IOException {
+        this.siguiente = siguiente;
+        this.salida = new DataOutputStream(new DeflaterOutputStream(
+                new BufferedOutputStream(new FileOutputStream(archivo), 64 * 1024), deflater, 64 * 1024));
+        salida.writeInt(MAGIA);
+        salida.writeInt(VERSION);
+    }
+
+    @Override
+    public void alRecibir(FrameYuv frame) {
+        if (error == null) {
+            try {
+                grabar(frame);
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+        siguiente.alRecibir(frame);
+    }
+
+    public int getGrabados() {
+        return grabados;
+    }
+
+    // Desde el hilo de la fuente, o cuando ya no llegan frames
+    public void cerrar() throws IOException {
+        try {
+            salida.close();
+        } finally {
+            deflater.end();
+        }
+        if (error != null) throw error;
+    }
+
+    private void grabar(FrameYuv frame) throws IOException {
+        int tamano = FrameGrabado.tamanoNv21(frame.getAncho(), frame.getAlto());
+        if (nv21.length != tamano) nv21 = new byte[tamano];
+        copiarNv21(frame, nv21);
+        salida.writeLong(frame.getInstanteMs());
+        salida.writeInt(frame.getAncho());
+        salida.writeInt(frame.getAlto());
+        salida.writeInt(frame.getRotacion());
+        salida.write(nv21, 0, tamano);
+        grabados++;
+    }
+
+    // Quita el relleno de cada fila e intercala V/U como en NV21
+    static void copiarNv21(FrameYuv frame, byte[] destino) {
+        int ancho = frame.getAncho();
+        int alto = frame.getAlto();
+        ByteBuffer y = frame.getPlano(0);
+        int filaY = frame.getRowStride(0);
+        int pasoY = frame.getPixelStride(0);
+        int i = 0;
+        for (int fila = 0; fila < alto; fila++) {
+            int base = fila * filaY;
+            if (pasoY == 1) {
+                ByteBuffer copia = y.duplicate();
+                copia.position(base);
+                copia.get(destino, i, ancho);
+                i += ancho;
+            } else {
+                for (int x = 0; x < ancho; x++) destino[i++] = y.get(base + x * pasoY);
+            }
+        }
+
+        ByteBuffer u = frame.getPlano(1);
+        ByteBuffer v = frame.getPlano(2);
+        int filaU = frame.getRowStride(1);
+        int pasoU = frame.getPixelStride(1);
+        int filaV = frame.getRowStride(2);
+        int pasoV = frame.getPixelStride(2);
+        int anchoCroma = (ancho + 1) / 2;
+        int altoCroma = (alto + 1) / 2;
+        for (int fila = 0; fila < altoCroma; fila++) {
+            for (int x = 0; x < anchoCroma; x++) {
+                destino[i++] = v.get(fila * filaV + x * pasoV);
+                destino[i++] = u.get(fila * filaU + x * pasoU);
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.exploradorvisualparanios;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Histograma de latencias con cubetas fijas (en microsegundos), seguro entre
+// hilos y sin reservar memoria al registrar. Los percentiles se aproximan con
+// el límite superior de la cubeta donde caen.
+public class HistogramaLatencias {
+
+    // Límites superiores de cada cubeta, en microsegundos; la última recoge todo lo demás
+    private static final long[] LIMITES_US = {
+            500, 1000, 2000, 3000, 4000, 5000, 6000, 8000, 10000, 12000, 15000, 20000,
+            25000, 30000, 40000, 50000, 60000, 80000, 100000, 125000, 150000, 200000,
+            250000, 300000, 400000, 500000, 750000, 1000000, 1500000, 2000000, 3000000,
+            5000000, Long.MAX_VALUE
+    };
+
+    private final AtomicLongArray cubetas = new AtomicLongArray(LIMITES_US.length);
+    private final AtomicLong cantidad = new AtomicLong();
+    private final AtomicLong sumaUs = new AtomicLong();
+    private final AtomicLong maximoUs = new AtomicLong();
+
+    public void registrarNanos(long nanos) {
+        long us = nanos / 1000;
+        if (us < 0) return;
+        cubetas.incrementAndGet(cubeta(us));
+        cantidad.incrementAndGet();
+        sumaUs.addAndGet(us);
+        long max;
+        while (us > (max = maximoUs.get()) && !maximoUs.compareAndSet(max, us)) {
+            // reintentar
+        }
+    }
+
+    public long getCantidad() {
+        return cantidad.get();
+    }
+
+    public long getMaximoUs() {
+        return maximoUs.get();
+    }
+
+    public long getPromedioUs() {
+        long n = cantidad.get();
+        return n > 0 ? sumaUs.get() / n : 0;
+    }
+
+    // percentil entre 0 y 100; devuelve 0 si no hay muestras
+    public long percentilUs(double percentil) {
+        long n = cantidad.get();
+        if (n == 0) return 0;
+        long objetivo = (long) Math.ceil(n * percentil / 100.0);
+        long acumulado = 0;
+        for (int i = 0; i < LIMITES_US.length; i++) {
+            acumulado += cubetas.get(i);
+            if (acumulado >= objetivo) {
+                return i == LIMITES_US.length - 1 ? maximoUs.get() : Math.min(LIMITES_US[i], maximoUs.get());
+            }
+        }
+        return maximoUs.get();
+    }
+
+    public void reiniciar() {
+        for (int i = 0; i < LIMITES_US.length; i++) cubetas.set(i, 0);
+        cantidad.set(0);
+        sumaUs.set(0);
+        maximoUs.set(0);
+    }
+
+    private static int cubeta(long us) {
+        int bajo = 0;
+        int alto = LIMITES_US.length - 1;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (us <= LIMITES_US[medio]) alto = medio;
+            else bajo = medio + 1;
+        }
+        return bajo;
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.exploradorvisualparanios;
+
+import android.graphics.Bitmap;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.format.DateFormat;
+import android.util.Log;
+import android.util.LruCache;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.BaseAdapter;
+import android.widget.ImageView;
+import android.widget.ListView;
+import android.widget.TextView;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Historial de descubrimientos, lo más nuevo primero. La lista pide a la
+// bitácora solo las páginas que se ven (cada una es una lectura de disco) y
+// guarda unas pocas páginas y miniaturas en memoria, así anda igual con
+// decenas de miles de entradas. Toda la E/S va a un hilo lector propio.
+public class HistorialActivity extends AppCompatActivity {
+
+    private static final String TAG = "HistorialActivity";
+    private static final int TAM_PAGINA = 50;
+    private static final int PAGINAS_EN_MEMORIA = 8;
+    private static final int BYTES_MINIATURAS = 2 * 1024 * 1024;
+
+    private BitacoraDescubrimientos bitacora;
+    private TextView tvCantidad;
+    private java.text.DateFormat formatoFecha;
+    private java.text.DateFormat formatoHora;
+    private final Adaptador adaptador = new Adaptador();
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final ExecutorService lector = Executors.newSingleThreadExecutor();
+
+    // Solo hilo principal
+    private int cantidad = 0;
+    private final LruCache<Integer, List<Descubrimiento>> paginas = new LruCache<>(PAGINAS_EN_MEMORIA);
+    private final Set<Integer> paginasPedidas = new HashSet<>();
+    private final Set<Long> miniaturasPedidas = new HashSet<>();
+    private final LruCache<Long, Bitmap> miniaturas = new LruCache<Long, Bitmap>(BYTES_MINIATURAS) {
+        @Override
+        protected int sizeOf(Long offset, Bitmap bitmap) {
+            return bitmap.getByteCount();
+        }
+    };
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_historial);
+        tvCantidad = findViewById(R.id.tvCantidad);
+        formatoFecha = DateFormat.getMediumDateFormat(this);
+        formatoHora = DateFormat.getTimeFormat(this);
+        ListView lista = findViewById(R.id.lvDescubrimientos);
+        lista.setAdapter(adaptador);
+
+        bitacora = ((ExploradorApp) getApplication()).getBitacora();
+        // Lo que todavía esperaba su lote se escribe antes de contar
+        lector.execute(() -> {
+            bitacora.sincronizar();
+            int total = bitacora.getCantidad();
+            handler.post(() -> {
+                cantidad = total;
+                tvCantidad.setText(total == 0 ? "¡Todavía no descubriste nada!"
+                        : String.format(Locale.getDefault(), "%d descubrimientos", total));
+                adaptador.notifyDataSetChanged();
+            });
+        });
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        lector.shutdownNow();
+    }
+
+    // La posición 0 es la entrada más nueva de las que había al abrir la pantalla
+    private Descubrimiento buscar(int posicion) {
+        int pagina = posicion / TAM_PAGINA;
+        List<Descubrimiento> entradas = paginas.get(pagina);
+        if (entradas == null) {
+            pedirPagina(pagina);
+            return null;
+        }
+        int hasta = cantidad - pagina * TAM_PAGINA;
+        int desde = Math.max(0, hasta - TAM_PAGINA);
+        return entradas.get(cantidad - 1 - posicion - desde);
+    }
+
+    private void pedirPagina(int pagina) {
+        if (!paginasPedidas.add(pagina)) return;
+        int hasta = cantidad - pagina * TAM_PAGINA;
+        int desde = Math.max(0, hasta - TAM_PAGINA);
+        lector.execute(() -> {
+            try {
+                List<Descubrimiento> entradas = bitacora.leer(desde, hasta - desde);
+                handler.post(() -> {
+                    paginasPedidas.remove(pagina);
+                    paginas.put(pagina, entradas);
+                    adaptador.notifyDataSetChanged();
+                });
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "No se pudo leer la página " + pagina, e);
+            }
+        });
+    }
+
+    private void mostrarMiniatura(ImageView vista, long offset) {
+        vista.setTag(offset);
+        Bitmap bitmap = offset == Descubrimiento.SIN_MINIATURA ? null : miniaturas.get(offset);
+        vista.setImageBitmap(bitmap);
+        if (bitmap != null || offset == Descubrimiento.SIN_MINIATURA || !miniaturasPedidas.add(offset)) return;
+        lector.execute(() -> {
+            Bitmap leida = MiniaturasJpeg.decodificar(bitacora.leerMiniatura(offset));
+            handler.post(() -> {
+                miniaturasPedidas.remove(offset);
+                if (leida == null) return;
+                miniaturas.put(offset, leida);
+                // La fila pudo reciclarse para otra entrada mientras se leía
+                if (Long.valueOf(offset).equals(vista.getTag())) vista.setImageBitmap(leida);
+            });
+        });
+    }
+
+    private class Adaptador extends BaseAdapter {
+
+        @Override
+        public int getCount() {
+            return cantidad;
+        }
+
+        @Override
+        public Object getItem(int position) {
+            return buscar(position);
+        }
+
+        @Override
+        public long getItemId(int position) {
+            return position;
+        }
+
+        @Override
+        public View getView(int position, View convertView, ViewGroup parent) {
+            View fila = convertView != null ? convertView
+                    : LayoutInflater.from(parent.getContext()).inflate(R.layout.item_descubrimiento, parent, false);
+            TextView tvEtiqueta = fila.findViewById(R.id.tvEtiqueta);
+            TextView tvDetalle = fila.findViewById(R.id.tvDetalle);
+            ImageView ivMiniatura = fila.findViewById(R.id.ivMiniatura);
+
+            Descubrimiento d = buscar(position);
+            if (d == null) {
+                tvEtiqueta.setText("...");
+                tvDetalle.setText("");
+                mostrarMiniatura(ivMiniatura, Descubrimiento.SIN_MINIATURA);
+                return fila;
+            }
+            tvEtiqueta.setText(d.etiqueta);
+            tvDetalle.setText(Math.round(d.confianza * 100) + "% · " + Descubrimiento.nombreOrigen(d.origen)
+                    + " · " + formatoFecha.format(d.instanteMs) + " " + formatoHora.format(d.instanteMs));
+            mostrarMiniatura(ivMiniatura, d.miniatura);
+            return fila;
+        }
+    }
+}
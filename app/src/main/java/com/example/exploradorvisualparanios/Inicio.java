@@ -4,22 +4,46 @@ import android.content.Intent;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 
 import androidx.appcompat.app.AppCompatActivity;
 
 public class Inicio extends AppCompatActivity {
 
-    private static final long SPLASH_DELAY = 3000;
+    // El splash dura lo que tarden en estar listos los motores, entre estos dos tiempos
+    private static final long SPLASH_MINIMO = 500;
+    private static final long SPLASH_MAXIMO = 3000;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private ArranqueMotores arranque;
+    private Runnable espera;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_inicio);
 
-        new Handler(Looper.getMainLooper()).postDelayed(() -> {
-            Intent intent = new Intent(Inicio.this, MainActivity.class);
-            startActivity(intent);
-            finish();
-        }, SPLASH_DELAY);
+        long inicio = SystemClock.elapsedRealtime();
+        arranque = ((ExploradorApp) getApplication()).getArranque();
+        arranque.iniciar();
+
+        espera = arranque.alEstarListo(SPLASH_MAXIMO, () -> {
+            long restante = SPLASH_MINIMO - (SystemClock.elapsedRealtime() - inicio);
+            handler.postDelayed(() -> {
+                if (isFinishing()) return;
+                Intent intent = new Intent(Inicio.this, MainActivity.class);
+                startActivity(intent);
+                finish();
+            }, Math.max(0, restante));
+        });
+    }
+
+    // El arranque vive en la aplicación: no debe quedarse con esta Activity
+    @Override
+    protected void onDestroy() {
+        arranque.cancelar(espera);
+        espera = null;
+        handler.removeCallbacksAndMessages(null);
+        super.onDestroy();
     }
 }
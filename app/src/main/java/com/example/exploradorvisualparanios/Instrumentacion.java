@@ -0,0 +1,127 @@
+package com.example.exploradorvisualparanios;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Latencias por etapa del pipeline (cámara → etiquetado → traducción → UI → voz)
+// y contadores de frames. Registrar es barato y seguro desde cualquier hilo.
+public class Instrumentacion {
+
+    public enum Etapa {
+        FRAME("frame"),             // intervalo entre frames que llegan a PipelineEnVivo
+        ETIQUETADO("etiquetado"),   // Etiquetador.etiquetar (ML Kit en el equipo)
+        TRADUCCION("traducción"),   // translatorEnToEs.translate (solo fallos de cache)
+        RESULTADOS("resultados"),   // filtrado, registro y armado de la vista en el hilo de resultados
+        UI("ui"),                   // desde que se publica la vista hasta que quedó aplicada en el hilo principal
+        VOZ("voz"),                 // hablar() hasta que el TTS empieza a sonar
+        TOTAL("frame→resultados"),  // desde que llega el frame hasta que el hilo de resultados lo procesó
+        CAPTURA("disparo→resultado"); // takePhoto() hasta que los resultados de la foto están en pantalla
+
+        final String nombre;
+
+        Etapa(String nombre) {
+            this.nombre = nombre;
+        }
+    }
+
+    private static final Etapa[] ETAPAS = Etapa.values();
+
+    private final HistogramaLatencias[] histogramas = new HistogramaLatencias[ETAPAS.length];
+    private final AtomicLong framesRecibidos = new AtomicLong();
+    private final AtomicLong framesDescartados = new AtomicLong();
+    private final AtomicLong framesOmitidos = new AtomicLong();
+    private final AtomicLong framesLimitados = new AtomicLong();
+    private final AtomicLong ultimoFrameNs = new AtomicLong();
+    private final StringBuilder resumen = new StringBuilder(256);
+
+    public Instrumentacion() {
+        for (int i = 0; i < histogramas.length; i++) histogramas[i] = new HistogramaLatencias();
+    }
+
+    public void registrar(Etapa etapa, long inicioNs) {
+        histogramas[etapa.ordinal()].registrarNanos(System.nanoTime() - inicioNs);
+    }
+
+    public void registrarDuracion(Etapa etapa, long nanos) {
+        histogramas[etapa.ordinal()].registrarNanos(nanos);
+    }
+
+    // Devuelve el instante de llegada para medir las etapas siguientes
+    public long frameRecibido() {
+        long ahora = System.nanoTime();
+        long anterior = ultimoFrameNs.getAndSet(ahora);
+        if (anterior != 0) registrarDuracion(Etapa.FRAME, ahora - anterior);
+        framesRecibidos.incrementAndGet();
+        return ahora;
+    }
+
+    // Frame cerrado sin analizar porque el etiquetador estaba ocupado
+    public void frameDescartado() {
+        framesDescartados.incrementAndGet();
+    }
+
+    // Frame cerrado sin analizar porque la escena no cambió
+    public void frameOmitido() {
+        framesOmitidos.incrementAndGet();
+    }
+
+    // Frame cerrado sin analizar porque el gobernador limita la tasa de análisis
+    public void frameLimitado() {
+        framesLimitados.incrementAndGet();
+    }
+
+    public HistogramaLatencias getHistograma(Etapa etapa) {
+        return histogramas[etapa.ordinal()];
+    }
+
+    // Ritmo al que llegan los frames de análisis, según el intervalo medio entre ellos
+    public float getFramesPorSegundo() {
+        long promedioUs = histogramas[Etapa.FRAME.ordinal()].getPromedioUs();
+        return promedioUs <= 0 ? 0f : 1000000f / promedioUs;
+    }
+
+    public long getFramesDescartados() {
+        return framesDescartados.get();
+    }
+
+    public void reiniciar() {
+        for (HistogramaLatencias histograma : histogramas) histograma.reiniciar();
+        framesRecibidos.set(0);
+        framesDescartados.set(0);
+        framesOmitidos.set(0);
+        framesLimitados.set(0);
+        ultimoFrameNs.set(0);
+    }
+
+    // Lectura compacta para la UI (p50/p95/p99 en ms); el texto se reutiliza
+    public CharSequence resumenCorto() {
+        resumen.setLength(0);
+        for (Etapa etapa : ETAPAS) {
+            HistogramaLatencias h = histogramas[etapa.ordinal()];
+            if (h.getCantidad() == 0) continue;
+            resumen.append(etapa.nombre).append(' ')
+                    .append(h.percentilUs(50) / 1000).append('/')
+                    .append(h.percentilUs(95) / 1000).append('/')
+                    .append(h.percentilUs(99) / 1000).append(" ms\n");
+        }
+        resumen.append("frames ").append(framesRecibidos.get())
+                .append(" caídos ").append(framesDescartados.get())
+                .append(" omitidos ").append(framesOmitidos.get())
+                .append(" limitados ").append(framesLimitados.get());
+        return resumen;
+    }
+
+    public void volcar(Writer out) throws IOException {
+        out.write("etapa\tmuestras\tp50_us\tp95_us\tp99_us\tmax_us\tpromedio_us\n");
+        for (Etapa etapa : ETAPAS) {
+            HistogramaLatencias h = histogramas[etapa.ordinal()];
+            out.write(etapa.nombre + "\t" + h.getCantidad() + "\t" + h.percentilUs(50) + "\t" + h.percentilUs(95)
+                    + "\t" + h.percentilUs(99) + "\t" + h.getMaximoUs() + "\t" + h.getPromedioUs() + "\n");
+        }
+        out.write("frames_recibidos\t" + framesRecibidos.get() + "\n");
+        out.write("frames_descartados\t" + framesDescartados.get() + "\n");
+        out.write("frames_omitidos\t" + framesOmitidos.get() + "\n");
+        out.write("frames_limitados\t" + framesLimitados.get() + "\n");
+    }
+}
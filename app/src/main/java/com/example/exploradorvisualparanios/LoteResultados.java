@@ -0,0 +1,49 @@
+package com.example.exploradorvisualparanios;
+
+// Junta las etiquetas de un frame (o de una imagen), las traduce y avisa una
+// sola vez, cuando ya llegaron todas las traducciones, para publicar una única
+// actualización de la UI. Se usa solo desde el hilo de resultados.
+class LoteResultados {
+
+    interface AlCompletar {
+        void alCompletar(LoteResultados lote);
+    }
+
+    final String[] ingles;
+    final String[] traducciones;
+    final float[] confianzas;
+    private int cantidad = 0;
+    private int pendientes = 0;
+
+    LoteResultados(int capacidad) {
+        ingles = new String[capacidad];
+        traducciones = new String[capacidad];
+        confianzas = new float[capacidad];
+    }
+
+    void agregar(String textoEnIngles, float confianza) {
+        ingles[cantidad] = textoEnIngles;
+        confianzas[cantidad] = confianza;
+        cantidad++;
+    }
+
+    int cantidad() {
+        return cantidad;
+    }
+
+    // Las traducciones en cache responden en el acto; el aviso llega igual una sola vez
+    void traducir(Traductor traductor, AlCompletar alCompletar) {
+        pendientes = cantidad;
+        if (cantidad == 0) {
+            alCompletar.alCompletar(this);
+            return;
+        }
+        for (int i = 0; i < cantidad; i++) {
+            final int pos = i;
+            traductor.traducir(ingles[i], traduccion -> {
+                traducciones[pos] = traduccion != null ? traduccion : ingles[pos];
+                if (--pendientes == 0) alCompletar.alCompletar(this);
+            });
+        }
+    }
+}
@@ -1,15 +1,23 @@
 package com.example.exploradorvisualparanios;
 
 import android.Manifest;
+import android.app.ActivityManager;
+import android.content.ContentResolver;
 import android.content.ContentValues;
+import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.graphics.Bitmap;
 import android.net.Uri;
 import android.os.Build;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.ParcelFileDescriptor;
+import android.os.SystemClock;
 import android.provider.MediaStore;
-import android.speech.tts.TextToSpeech;
+import android.text.method.ScrollingMovementMethod;
 import android.util.Log;
+import android.util.Size;
 import android.view.View;
 import android.view.animation.Animation;
 import android.view.animation.LinearInterpolator;
@@ -31,62 +39,144 @@ import androidx.camera.core.ImageCapture;
 import androidx.camera.core.ImageCaptureException;
 import androidx.camera.core.ImageProxy;
 import androidx.camera.core.Preview;
+import androidx.camera.core.resolutionselector.AspectRatioStrategy;
+import androidx.camera.core.resolutionselector.ResolutionSelector;
+import androidx.camera.core.resolutionselector.ResolutionStrategy;
 import androidx.camera.lifecycle.ProcessCameraProvider;
 import androidx.camera.view.PreviewView;
 import androidx.cardview.widget.CardView;
 import androidx.core.content.ContextCompat;
+import androidx.exifinterface.media.ExifInterface;
 
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.mlkit.vision.common.InputImage;
 import com.google.mlkit.vision.label.ImageLabel;
 import com.google.mlkit.vision.label.ImageLabeler;
-import com.google.mlkit.vision.label.ImageLabeling;
-import com.google.mlkit.vision.label.defaults.ImageLabelerOptions;
 import com.google.mlkit.nl.translate.Translator;
-import com.google.mlkit.nl.translate.TranslatorOptions;
-import com.google.mlkit.nl.translate.Translation;
-import com.google.mlkit.nl.translate.TranslateLanguage;
-import com.google.mlkit.common.model.DownloadConditions;
 
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicBoolean;
 
-public class MainActivity extends AppCompatActivity implements TextToSpeech.OnInitListener {
+public class MainActivity extends AppCompatActivity {
 
-    private static final float CONFIDENCE_THRESHOLD = 0.85f;
     private static final String TAG = "MainActivity";
+    private static final int MAX_ETIQUETAS_POR_FRAME = 5;
+    private static final int VENTANA_RESULTADOS = 6;
+    // Diferencia media de luminancia (0-255) para considerar que la escena cambió
+    private static final int UMBRAL_CAMBIO_ESCENA = 6;
+    private static final long MAX_SIN_ANALIZAR_MS = 2000;
+    private static final long PERIODO_PANEL_MS = 500;
+    // Cada cuánto el gobernador vuelve a leer temperatura y batería mientras se analiza
+    private static final long PERIODO_GOBERNADOR_MS = 5000;
+    // Media móvil de confianza: entra como estable sobre UMBRAL_ENTRADA y sale bajo UMBRAL_SALIDA
+    private static final float ALFA_ESTABILIZADOR = 0.5f;
+    private static final float UMBRAL_ENTRADA = 0.6f;
+    private static final float UMBRAL_SALIDA = 0.2f;
+    private static final long VENTANA_ETIQUETAS_MS = 4000;
+    private static final int MAX_ETIQUETAS_SEGUIDAS = 64;
+    // Resolución de análisis adaptativa: niveles elegidos para sostener esta tasa de etiquetado
+    private static final float ETIQUETADOS_POR_SEGUNDO_OBJETIVO = 5f;
+    // false vuelve al camino anterior de takePhoto (guardar y releer) para comparar latencias
+    private static final boolean CAPTURA_EN_MEMORIA = true;
+    // true graba los frames en vivo de cada sesión (solo depuración) para reproducirlos en la JVM
+    private static final boolean GRABAR_FRAMES = false;
+    // Análisis por lotes desde la galería
+    private static final int MAX_FOTOS_LOTE = 50;
+    private static final int CONCURRENCIA_LOTE = 2;
+    private static final int LADO_INFERENCIA_LOTE = 480;
+    private static final int ETIQUETAS_POR_FOTO = 3;
 
     private PreviewView previewView;
     private ImageView ivImagen;
-    private ImageButton btnCloseImage, btnAbrirGaleria, btnTomarFoto, btnAnalizar, btnCambiarCamara;
-    private TextView tvResultados, tvDatoCurioso;
+    private ImageButton btnCloseImage, btnAbrirGaleria, btnTomarFoto, btnAnalizar, btnCambiarCamara, btnHistorial;
+    private TextView tvResultados, tvDatoCurioso, tvLiveStatus;
     private CardView cardResultados;
 
+    private ContenedorMotores motores;
+    private ArranqueMotores arranque;
+    private Instrumentacion instrumentacion;
+    private final Handler handlerUi = new Handler(Looper.getMainLooper());
+    private volatile String idVozActual;
+    private volatile long inicioVozNs;
     private ImageLabeler imageLabeler;
-    private TextToSpeech tts;
+    private CacheVoz voz;
     private Translator translatorEnToEs;
-    private Map<String, String> datosCuriosos;
+    private TraductorEtiquetas traductorEtiquetas;
+    private DatosCuriosos datosCuriosos;
+    private BitacoraDescubrimientos bitacora;
 
     private ProcessCameraProvider cameraProvider;
+    private Preview preview;
     private ImageCapture imageCapture;
     private ImageAnalysis imageAnalysis;
     private ExecutorService cameraExecutor;
-
-    private final AtomicBoolean isProcessing = new AtomicBoolean(false);
-    private boolean isAnalysisRunning = false;
+    private ExecutorService ioExecutor;
+    private ExecutorService resultadosExecutor;
+    private volatile long inicioDisparoNs = 0;
+    private DecodificadorImagenes decodificador;
+    private Bitmap bitmapMostrado;
+    // Hilo principal: bitmaps que el etiquetador aún lee, y los que ya no se muestran
+    // y vuelven al pool cuando termine su propio etiquetado
+    private final Set<Bitmap> bitmapsEnAnalisis = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<Bitmap> liberarAlTerminar = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private FuenteCamara fuenteCamara;
+    private PipelineEnVivo pipeline;
+    private GrabadorFrames grabador;
+    private final DetectorCambioEscena detectorCambio =
+            new DetectorCambioEscena(UMBRAL_CAMBIO_ESCENA, MAX_SIN_ANALIZAR_MS);
+    private volatile boolean isAnalysisRunning = false;
     private int lensFacing = CameraSelector.LENS_FACING_BACK;
     private enum AppState { LIVE_CAMERA, IMAGE_DISPLAY }
 
-    // Control global de etiquetas para no repetir
-    private final Map<String, Float> etiquetasMostradas = new HashMap<>();
+    // Desde acá hasta oyenteEnVivo todo se usa solo en el hilo de resultados
+    private final RenderizadorResultados renderizador = new RenderizadorResultados(VENTANA_RESULTADOS);
+    private long inicioAnalisisMs = 0;
+
+    // Etiquetas en vivo con histéresis para no repetir mientras sigan en escena
+    private final EstabilizadorEtiquetas estabilizador = new EstabilizadorEtiquetas(
+            ALFA_ESTABILIZADOR, UMBRAL_ENTRADA, UMBRAL_SALIDA, VENTANA_ETIQUETAS_MS, MAX_ETIQUETAS_SEGUIDAS);
+    private RegistroEtiquetas registro;
+    private ProcesadorEtiquetas procesador;
+    private final PipelineEnVivo.Oyente oyenteEnVivo = new PipelineEnVivo.Oyente() {
+        @Override
+        public void alEtiquetarFrame() {
+            if (inicioAnalisisMs == 0) return;
+            Log.d(TAG, "Latencia play → primer resultado: " + (SystemClock.elapsedRealtime() - inicioAnalisisMs) + " ms");
+            inicioAnalisisMs = 0;
+        }
+
+        @Override
+        public void alPublicar(int[] indices, int cantidad, MiniaturaGris miniatura) {
+            publicarEtiquetasEnVivo(indices, cantidad, miniatura);
+        }
+
+        @Override
+        public void alCambiarNivel() {
+            handlerUi.post(MainActivity.this::aplicarNivelAnalisis);
+        }
+
+        @Override
+        public void alFallar(Exception e) {
+            Log.e(TAG, "Fallo etiquetado en vivo", e);
+        }
+    };
+    private AnalizadorLote analizadorLote;
+    private PoliticaResolucion politicaResolucion;
+    private GobernadorAnalisis gobernador;
 
     // --- ActivityResultLaunchers ---
     private final ActivityResultLauncher<String> requestPermissionLauncher = registerForActivityResult(
@@ -99,18 +189,20 @@ public class MainActivity extends AppCompatActivity implements TextToSpeech.OnIn
     private final ActivityResultLauncher<PickVisualMediaRequest> pickMedia =
             registerForActivityResult(new ActivityResultContracts.PickVisualMedia(), uri -> {
                 if (uri != null) {
+                    inicioDisparoNs = 0;
                     try {
-                        InputImage image = InputImage.fromFilePath(this, uri);
-                        Bitmap bitmap = MediaStore.Images.Media.getBitmap(this.getContentResolver(), uri);
-                        ivImagen.setImageBitmap(bitmap);
-                        setAppState(AppState.IMAGE_DISPLAY);
-                        analizarImagenEstatica(image);
+                        mostrarYAnalizar(uri, Descubrimiento.ORIGEN_GALERIA);
                     } catch (IOException e) {
                         Log.e(TAG, "Error al cargar imagen de galería", e);
                     }
                 }
             });
 
+    private final ActivityResultLauncher<PickVisualMediaRequest> pickMultipleMedia =
+            registerForActivityResult(new ActivityResultContracts.PickMultipleVisualMedia(MAX_FOTOS_LOTE), uris -> {
+                if (!uris.isEmpty()) analizarLote(uris);
+            });
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -123,39 +215,65 @@ public class MainActivity extends AppCompatActivity implements TextToSpeech.OnIn
         btnTomarFoto = findViewById(R.id.btnTomarFoto);
         btnAnalizar = findViewById(R.id.btnAnalizar);
         btnCambiarCamara = findViewById(R.id.btnCambiarCamara);
+        btnHistorial = findViewById(R.id.btnHistorial);
         tvResultados = findViewById(R.id.tvResultados);
+        tvResultados.setMovementMethod(new ScrollingMovementMethod());
         tvDatoCurioso = findViewById(R.id.tvDatoCurioso);
+        tvLiveStatus = findViewById(R.id.tvLiveStatus);
         cardResultados = findViewById(R.id.cardResultados);
 
-        cameraExecutor = Executors.newSingleThreadExecutor();
-        tts = new TextToSpeech(this, this);
-
-        ImageLabelerOptions options = new ImageLabelerOptions.Builder()
-                .setConfidenceThreshold(CONFIDENCE_THRESHOLD)
-                .build();
-        imageLabeler = ImageLabeling.getClient(options);
-
-        crearMapaDeDatosCuriosos();
+        decodificador = new DecodificadorImagenes(getContentResolver());
+        ActivityManager activityManager = (ActivityManager) getSystemService(ACTIVITY_SERVICE);
+        int nivelInicial = PoliticaResolucion.nivelInicial(Runtime.getRuntime().availableProcessors(),
+                activityManager.getMemoryClass(), activityManager.isLowRamDevice());
+        politicaResolucion = new PoliticaResolucion(ETIQUETADOS_POR_SEGUNDO_OBJETIVO, nivelInicial);
+        gobernador = new GobernadorAnalisis(new SenalesAndroid(this));
+
+        // Los motores son del proceso: sobreviven a la recreación de la Activity.
+        // Normalmente Inicio ya los dejó listos; si no, se crean al pedirlos.
+        ExploradorApp app = (ExploradorApp) getApplication();
+        motores = app.getMotores();
+        motores.adquirir();
+        arranque = app.getArranque();
+        arranque.iniciar();
+        imageLabeler = motores.getEtiquetador();
+        voz = motores.getCacheVoz();
+        translatorEnToEs = motores.getTraductor();
+        traductorEtiquetas = motores.getTraductorEtiquetas();
+        cameraExecutor = motores.getEjecutorCamara();
+        ioExecutor = motores.getEjecutorIo();
+        resultadosExecutor = motores.getEjecutorResultados();
+        instrumentacion = app.getInstrumentacion();
+        bitacora = app.getBitacora();
+        voz.setOyente(id -> {
+            if (id.equals(idVozActual)) instrumentacion.registrar(Instrumentacion.Etapa.VOZ, inicioVozNs);
+        });
+
+        datosCuriosos = motores.getDatosCuriosos();
+        registro = new RegistroEtiquetas(datosCuriosos);
+        procesador = new ProcesadorEtiquetas(registro, estabilizador,
+                ContenedorMotores.CONFIDENCE_THRESHOLD, MAX_ETIQUETAS_POR_FRAME);
+        fuenteCamara = new FuenteCamara(cameraExecutor);
+        pipeline = new PipelineEnVivo(new EtiquetadorMlKit(imageLabeler), detectorCambio, procesador, registro,
+                traductorEtiquetas, politicaResolucion, instrumentacion, resultadosExecutor, oyenteEnVivo);
 
         btnAnalizar.setOnClickListener(v -> toggleAnalysis());
         btnTomarFoto.setOnClickListener(v -> takePhoto());
         btnAbrirGaleria.setOnClickListener(v -> openGallery());
+        // Mantener presionado elige varias fotos para analizarlas en lote
+        btnAbrirGaleria.setOnLongClickListener(v -> {
+            openGalleryLote();
+            return true;
+        });
         btnCloseImage.setOnClickListener(v -> setAppState(AppState.LIVE_CAMERA));
         btnCambiarCamara.setOnClickListener(v -> cambiarCamara());
+        btnHistorial.setOnClickListener(v -> abrirHistorial());
 
         handleCameraPermission();
 
-        TranslatorOptions translatorOptions = new TranslatorOptions.Builder()
-                .setSourceLanguage(TranslateLanguage.ENGLISH)
-                .setTargetLanguage(TranslateLanguage.SPANISH)
-                .build();
-
-        translatorEnToEs = Translation.getClient(translatorOptions);
-
-        DownloadConditions conditions = new DownloadConditions.Builder()
-                .requireWifi()
-                .build();
-
+//        DownloadConditions conditions = new DownloadConditions.Builder()
+//                .requireWifi()
+//                .build();
 //        translatorEnToEs.downloadModelIfNeeded(conditions)
 //                .addOnSuccessListener(unused ->
 //                        Toast.makeText(this, "Modelo de traducción listo", Toast.LENGTH_SHORT).show())
@@ -183,35 +301,71 @@ public class MainActivity extends AppCompatActivity implements TextToSpeech.OnIn
         }, ContextCompat.getMainExecutor(this));
     }
 
-    private void bindCameraUseCases() {
-        if (cameraProvider == null) return;
-        cameraProvider.unbindAll();
-
-        Preview preview = new Preview.Builder()
+    // Los casos de uso se construyen una sola vez; ImageAnalysis queda siempre vinculado
+    // y play/pausa solo pone o quita su analizador, sin desvincular la cámara.
+    private void construirCasosDeUso() {
+        preview = new Preview.Builder()
                 .setTargetAspectRatio(AspectRatio.RATIO_4_3)
                 .build();
         preview.setSurfaceProvider(previewView.getSurfaceProvider());
 
-        CameraSelector cameraSelector = new CameraSelector.Builder()
-                .requireLensFacing(lensFacing)
-                .build();
-
         imageCapture = new ImageCapture.Builder()
                 .setTargetAspectRatio(AspectRatio.RATIO_4_3)
                 .build();
 
-        imageAnalysis = new ImageAnalysis.Builder()
-                .setTargetAspectRatio(AspectRatio.RATIO_4_3)
+        imageAnalysis = crearAnalisis();
+    }
+
+    // Solo el análisis usa la resolución del nivel actual; preview y captura no cambian
+    private ImageAnalysis crearAnalisis() {
+        ResolutionSelector selector = new ResolutionSelector.Builder()
+                .setAspectRatioStrategy(AspectRatioStrategy.RATIO_4_3_FALLBACK_AUTO_STRATEGY)
+                .setResolutionStrategy(new ResolutionStrategy(
+                        new Size(politicaResolucion.getAncho(), politicaResolucion.getAlto()),
+                        ResolutionStrategy.FALLBACK_RULE_CLOSEST_LOWER_THEN_HIGHER))
+                .build();
+        // El pipeline retiene un solo frame: el ImageLabeler etiqueta de a uno, así que
+        // varios en vuelo solo esperarían en su cola. Etiquetar en paralelo pediría un
+        // ImageLabeler por lugar, STRATEGY_BLOCK_PRODUCER con setImageQueueDepth a la
+        // medida de la ventana y medir en un equipo que de verdad rinda más.
+        ImageAnalysis analisis = new ImageAnalysis.Builder()
+                .setResolutionSelector(selector)
                 .setBackpressureStrategy(ImageAnalysis.STRATEGY_KEEP_ONLY_LATEST)
                 .build();
-        imageAnalysis.setAnalyzer(cameraExecutor, this::processImageProxy);
+        fuenteCamara.setAnalisis(analisis);
+        return analisis;
+    }
 
+    // Cambio de nivel: se reemplaza solo ImageAnalysis. Volver a vincular reconfigura
+    // la sesión de la cámara y la vista previa se corta un instante, por eso la
+    // política cambia de nivel pocas veces
+    private void aplicarNivelAnalisis() {
+        if (cameraProvider == null || imageAnalysis == null) return;
+        cameraProvider.unbind(imageAnalysis);
+        imageAnalysis = crearAnalisis();
+        detectorCambio.reiniciar();
         try {
-            if (isAnalysisRunning) {
-                cameraProvider.bindToLifecycle(this, cameraSelector, preview, imageCapture, imageAnalysis);
-            } else {
-                cameraProvider.bindToLifecycle(this, cameraSelector, preview, imageCapture);
-            }
+            cameraProvider.bindToLifecycle(this, selectorCamara(), imageAnalysis);
+        } catch (Exception e) {
+            Log.e(TAG, "Error al vincular el análisis", e);
+        }
+        Log.i(TAG, "Resolución de análisis: " + politicaResolucion.resumen()
+                + String.format(Locale.US, ", %.1f etiquetados/s", politicaResolucion.getEtiquetadosPorSegundo()));
+    }
+
+    private CameraSelector selectorCamara() {
+        return new CameraSelector.Builder()
+                .requireLensFacing(lensFacing)
+                .build();
+    }
+
+    private void bindCameraUseCases() {
+        if (cameraProvider == null) return;
+        if (preview == null) construirCasosDeUso();
+        cameraProvider.unbindAll();
+
+        try {
+            cameraProvider.bindToLifecycle(this, selectorCamara(), preview, imageCapture, imageAnalysis);
         } catch (Exception e) {
             Log.e(TAG, "Error al vincular casos de uso", e);
         }
@@ -220,31 +374,83 @@ public class MainActivity extends AppCompatActivity implements TextToSpeech.OnIn
     private void toggleAnalysis() {
         isAnalysisRunning = !isAnalysisRunning;
         if (isAnalysisRunning) {
+            cancelarLote();
             btnAnalizar.setImageResource(android.R.drawable.ic_media_pause);
             tvResultados.setText("Analizando en vivo...");
-            etiquetasMostradas.clear(); // reiniciar etiquetas
+            long inicioMs = SystemClock.elapsedRealtime();
+            pipeline.reiniciar(); // reiniciar etiquetas
+            // En la cola del hilo de resultados, antes que cualquier frame de esta sesión
+            resultadosExecutor.execute(() -> {
+                renderizador.reiniciar("Analizando en vivo...");
+                inicioAnalisisMs = inicioMs;
+            });
+            instrumentacion.reiniciar();
+            politicaResolucion.reiniciar();
+            handlerUi.removeCallbacks(evaluarGobernador);
+            handlerUi.post(evaluarGobernador);
+            fuenteCamara.iniciar(receptorEnVivo());
+            mostrarPanelLatencias(true);
         } else {
             btnAnalizar.setImageResource(android.R.drawable.ic_media_play);
             tvResultados.setText("Análisis detenido");
+            fuenteCamara.detener();
+            cerrarGrabacion();
+            handlerUi.removeCallbacks(evaluarGobernador);
+            mostrarPanelLatencias(false);
+            Log.d(TAG, "Frames en vivo: " + detectorCambio.resumen());
+            resultadosExecutor.execute(() -> Log.d(TAG, "Etiquetas en vivo: " + procesador.resumen()));
+            Log.d(TAG, "Resolución de análisis: " + politicaResolucion.resumen());
+            volcarMetricas();
         }
-        bindCameraUseCases();
     }
 
     private void takePhoto() {
         if (imageCapture == null) return;
         if (isAnalysisRunning) toggleAnalysis();
+        cancelarLote();
 
-        String name = new SimpleDateFormat("yyyy-MM-dd-HH-mm-ss-SSS", Locale.US)
-                .format(System.currentTimeMillis());
-        ContentValues contentValues = new ContentValues();
-        contentValues.put(MediaStore.MediaColumns.DISPLAY_NAME, name);
-        contentValues.put(MediaStore.MediaColumns.MIME_TYPE, "image/jpeg");
-        if (Build.VERSION.SDK_INT > Build.VERSION_CODES.P) {
-            contentValues.put(MediaStore.Images.Media.RELATIVE_PATH, "Pictures/VisualExplorer");
+        inicioDisparoNs = System.nanoTime();
+        if (CAPTURA_EN_MEMORIA) {
+            capturarEnMemoria();
+        } else {
+            capturarEnArchivo();
         }
+    }
 
+    // La foto se etiqueta directo desde memoria; el JPEG se guarda en la galería en paralelo
+    private void capturarEnMemoria() {
+        final int ancho = anchoVista();
+        final int alto = altoVista();
+        imageCapture.takePicture(cameraExecutor, new ImageCapture.OnImageCapturedCallback() {
+            @Override
+            public void onCaptureSuccess(@NonNull ImageProxy imagen) {
+                ByteBuffer buffer = imagen.getPlanes()[0].getBuffer();
+                byte[] jpeg = new byte[buffer.remaining()];
+                buffer.get(jpeg);
+                int rotacion = imagen.getImageInfo().getRotationDegrees();
+                imagen.close();
+
+                ioExecutor.execute(() -> guardarEnGaleria(jpeg, rotacion));
+                try {
+                    DecodificadorImagenes.Resultado resultado = decodificador.decodificar(jpeg, rotacion, ancho, alto);
+                    runOnUiThread(() -> mostrarYAnalizar(resultado, Descubrimiento.ORIGEN_FOTO));
+                } catch (IOException e) {
+                    Log.e(TAG, "Error decodificando la foto", e);
+                }
+            }
+
+            @Override
+            public void onError(@NonNull ImageCaptureException exception) {
+                inicioDisparoNs = 0;
+                Log.e(TAG, "Error al tomar foto", exception);
+            }
+        });
+    }
+
+    // Camino anterior (guardar y volver a leer), para comparar la latencia disparo→resultado
+    private void capturarEnArchivo() {
         ImageCapture.OutputFileOptions outputOptions = new ImageCapture.OutputFileOptions
-                .Builder(getContentResolver(), MediaStore.Images.Media.EXTERNAL_CONTENT_URI, contentValues)
+                .Builder(getContentResolver(), MediaStore.Images.Media.EXTERNAL_CONTENT_URI, valoresFoto())
                 .build();
 
         imageCapture.takePicture(outputOptions, ContextCompat.getMainExecutor(this),
@@ -254,29 +460,114 @@ public class MainActivity extends AppCompatActivity implements TextToSpeech.OnIn
                         Uri savedUri = outputFileResults.getSavedUri();
                         Toast.makeText(MainActivity.this, "¡Foto guardada!", Toast.LENGTH_SHORT).show();
                         try {
-                            InputImage image = InputImage.fromFilePath(MainActivity.this, savedUri);
-                            Bitmap bitmap = MediaStore.Images.Media.getBitmap(getContentResolver(), savedUri);
-                            ivImagen.setImageBitmap(bitmap);
-                            setAppState(AppState.IMAGE_DISPLAY);
-                            analizarImagenEstatica(image);
+                            mostrarYAnalizar(savedUri, Descubrimiento.ORIGEN_FOTO);
                         } catch (IOException e) {
                             Log.e(TAG, "Error procesando imagen guardada", e);
                         }
                     }
                     @Override
                     public void onError(@NonNull ImageCaptureException exception) {
+                        inicioDisparoNs = 0;
                         Log.e(TAG, "Error al tomar foto", exception);
                     }
                 });
     }
 
+    private ContentValues valoresFoto() {
+        String name = new SimpleDateFormat("yyyy-MM-dd-HH-mm-ss-SSS", Locale.US)
+                .format(System.currentTimeMillis());
+        ContentValues contentValues = new ContentValues();
+        contentValues.put(MediaStore.MediaColumns.DISPLAY_NAME, name);
+        contentValues.put(MediaStore.MediaColumns.MIME_TYPE, "image/jpeg");
+        if (Build.VERSION.SDK_INT > Build.VERSION_CODES.P) {
+            contentValues.put(MediaStore.Images.Media.RELATIVE_PATH, "Pictures/VisualExplorer");
+        }
+        return contentValues;
+    }
+
+    // Hilo de E/S: escribe el JPEG tal como lo entregó la cámara y anota su orientación en el EXIF
+    private void guardarEnGaleria(byte[] jpeg, int rotacion) {
+        ContentResolver resolver = getContentResolver();
+        ContentValues valores = valoresFoto();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            valores.put(MediaStore.MediaColumns.IS_PENDING, 1);
+        }
+        Uri uri = resolver.insert(MediaStore.Images.Media.EXTERNAL_CONTENT_URI, valores);
+        if (uri == null) {
+            Log.e(TAG, "No se pudo crear la foto en la galería");
+            return;
+        }
+        try (ParcelFileDescriptor pfd = resolver.openFileDescriptor(uri, "rw")) {
+            if (pfd == null) throw new IOException("Sin descriptor para " + uri);
+            FileOutputStream out = new FileOutputStream(pfd.getFileDescriptor());
+            out.write(jpeg);
+            out.flush();
+            ExifInterface exif = new ExifInterface(pfd.getFileDescriptor());
+            exif.setAttribute(ExifInterface.TAG_ORIENTATION, String.valueOf(orientacionExif(rotacion)));
+            exif.saveAttributes();
+        } catch (IOException e) {
+            Log.e(TAG, "Error guardando la foto", e);
+            resolver.delete(uri, null, null);
+            return;
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            ContentValues listo = new ContentValues();
+            listo.put(MediaStore.MediaColumns.IS_PENDING, 0);
+            resolver.update(uri, listo, null, null);
+        }
+        runOnUiThread(() -> Toast.makeText(this, "¡Foto guardada!", Toast.LENGTH_SHORT).show());
+    }
+
+    private static int orientacionExif(int rotacion) {
+        switch (rotacion) {
+            case 90: return ExifInterface.ORIENTATION_ROTATE_90;
+            case 180: return ExifInterface.ORIENTATION_ROTATE_180;
+            case 270: return ExifInterface.ORIENTATION_ROTATE_270;
+            default: return ExifInterface.ORIENTATION_NORMAL;
+        }
+    }
+
     private void openGallery() {
         if (isAnalysisRunning) toggleAnalysis();
+        cancelarLote();
         pickMedia.launch(new PickVisualMediaRequest.Builder()
                 .setMediaType(ActivityResultContracts.PickVisualMedia.ImageOnly.INSTANCE)
                 .build());
     }
 
+    private void openGalleryLote() {
+        if (isAnalysisRunning) toggleAnalysis();
+        cancelarLote();
+        pickMultipleMedia.launch(new PickVisualMediaRequest.Builder()
+                .setMediaType(ActivityResultContracts.PickVisualMedia.ImageOnly.INSTANCE)
+                .build());
+    }
+
+    // --- Análisis por lotes ---
+
+    private void analizarLote(List<Uri> fotos) {
+        cancelarLote();
+        setAppState(AppState.LIVE_CAMERA);
+        tvResultados.setText("Revisando " + fotos.size() + " fotos...");
+        // Pool de bitmaps propio: uno por foto en vuelo
+        analizadorLote = new AnalizadorLote(new DecodificadorImagenes(getContentResolver(), CONCURRENCIA_LOTE),
+                imageLabeler, traductorEtiquetas, bitacora, resultadosExecutor,
+                CONCURRENCIA_LOTE, LADO_INFERENCIA_LOTE, ETIQUETAS_POR_FOTO);
+        analizadorLote.analizar(fotos, this::mostrarVista);
+    }
+
+    private void abrirHistorial() {
+        if (isAnalysisRunning) toggleAnalysis();
+        startActivity(new Intent(this, HistorialActivity.class));
+    }
+
+    private void cancelarLote() {
+        if (analizadorLote != null) {
+            analizadorLote.cancelar();
+            analizadorLote = null;
+        }
+    }
+
     private void cambiarCamara() {
         if (cameraProvider == null) return;
 
@@ -290,170 +581,304 @@ public class MainActivity extends AppCompatActivity implements TextToSpeech.OnIn
         lensFacing = (lensFacing == CameraSelector.LENS_FACING_BACK) ?
                 CameraSelector.LENS_FACING_FRONT : CameraSelector.LENS_FACING_BACK;
 
+        // Se reutilizan los mismos casos de uso (y el analizador, si está activo)
         bindCameraUseCases();
     }
 
-    private void processImageProxy(ImageProxy imageProxy) {
-        if (!isProcessing.compareAndSet(false, true)) {
-            imageProxy.close();
-            return;
-        }
-
-        @androidx.camera.core.ExperimentalGetImage
-        android.media.Image mediaImage = imageProxy.getImage();
-        if (mediaImage != null) {
-            InputImage image = InputImage.fromMediaImage(mediaImage, imageProxy.getImageInfo().getRotationDegrees());
-            imageLabeler.process(image)
-                    .addOnSuccessListener(labels -> runOnUiThread(() -> actualizarEtiquetasEnVivo(labels)))
-                    .addOnFailureListener(e -> Log.e(TAG, "Fallo etiquetado en vivo", e))
-                    .addOnCompleteListener(task -> {
-                        isProcessing.set(false);
-                        imageProxy.close();
-                    });
-        } else {
-            isProcessing.set(false);
-            imageProxy.close();
+    // Hilo de resultados: texto, dato curioso y frases quedan armados antes de tocar la UI
+    private void publicarEtiquetasEnVivo(int[] indices, int cantidad, MiniaturaGris miniatura) {
+        if (!isAnalysisRunning) return;
+        String texto = procesador.armarResultados(indices, cantidad, renderizador).toString();
+        String dato = registro.getDatoCurioso(indices[0]);
+
+        // Se adelanta la síntesis de lo que probablemente se diga después: el próximo dato
+        // de esta etiqueta y el anuncio de las demás que acaban de estabilizarse
+        String[] precalentar = new String[cantidad];
+        byte[] jpeg = MiniaturasJpeg.comprimir(miniatura);
+        for (int i = 0; i < cantidad; i++) {
+            precalentar[i] = fraseAnuncio(registro.getTraduccion(indices[i]), registro.verDatoCurioso(indices[i]));
+            bitacora.registrar(registro.getTraduccion(indices[i]), registro.getIngles(indices[i]),
+                    procesador.getConfianza(indices[i]), Descubrimiento.ORIGEN_VIVO, jpeg);
         }
+        VistaResultados vista = VistaResultados.descubrimiento(texto, dato,
+                fraseAnuncio(registro.getTraduccion(indices[0]), dato), precalentar);
+
+        long publicadaNs = System.nanoTime();
+        handlerUi.post(() -> {
+            // El análisis pudo detenerse mientras la vista esperaba en la cola
+            if (!isAnalysisRunning) return;
+            mostrarVista(vista);
+            instrumentacion.registrar(Instrumentacion.Etapa.UI, publicadaNs);
+        });
     }
 
-    private void actualizarEtiquetasEnVivo(List<ImageLabel> labels) {
-        int maxEtiquetas = 5;
-        int contador = 0;
-        boolean[] primera = {true};
-
-        for (ImageLabel label : labels) {
-            if (contador >= maxEtiquetas) break;
-
-            String textoEnIngles = label.getText();
-            float confianza = label.getConfidence();
-
-            if (etiquetasMostradas.containsKey(textoEnIngles)) continue;
-
-            etiquetasMostradas.put(textoEnIngles, confianza);
-            contador++;
+    // Una sola decodificación al tamaño de la vista; el mismo bitmap se muestra y se etiqueta
+    private void mostrarYAnalizar(Uri uri, int origen) throws IOException {
+        liberarImagenMostrada();
+        mostrarYAnalizar(decodificador.decodificar(uri, anchoVista(), altoVista()), origen);
+    }
 
-            translatorEnToEs.translate(textoEnIngles)
-                    .addOnSuccessListener(traduccion -> runOnUiThread(() -> {
-                        String textoActual = tvResultados.getText().toString();
-                        tvResultados.setText(textoActual + traduccion + " (" + Math.round(confianza * 100) + "%)\n");
+    private void mostrarYAnalizar(DecodificadorImagenes.Resultado resultado, int origen) {
+        liberarImagenMostrada();
+        bitmapMostrado = resultado.bitmap;
+        ivImagen.setImageBitmap(bitmapMostrado);
+        setAppState(AppState.IMAGE_DISPLAY);
+        analizarImagenEstatica(resultado, origen);
+    }
 
-                        if (primera[0]) {
-                            String datoCurioso = datosCuriosos.get(textoEnIngles.toLowerCase());
-                            tvDatoCurioso.setText(datoCurioso != null ? datoCurioso : "");
-                            tvDatoCurioso.setVisibility(datoCurioso != null ? View.VISIBLE : View.GONE);
+    private int anchoVista() {
+        return previewView.getWidth() > 0 ? previewView.getWidth() : getResources().getDisplayMetrics().widthPixels;
+    }
 
-                            String mensajeHablar = "¡Veo " + traduccion + "!" + (datoCurioso != null ? " " + datoCurioso : "");
-                            hablar(mensajeHablar);
+    private int altoVista() {
+        return previewView.getHeight() > 0 ? previewView.getHeight() : getResources().getDisplayMetrics().heightPixels;
+    }
 
-                            primera[0] = false;
-                        }
-                    }))
-                    .addOnFailureListener(e -> Log.e(TAG, "Error traduciendo etiqueta", e));
+    private void liberarImagenMostrada() {
+        if (bitmapMostrado == null) return;
+        ivImagen.setImageDrawable(null);
+        // Si el etiquetador aún lo está leyendo se devuelve cuando termine ese etiquetado
+        if (bitmapsEnAnalisis.contains(bitmapMostrado)) {
+            liberarAlTerminar.add(bitmapMostrado);
+        } else {
+            decodificador.liberar(bitmapMostrado);
         }
+        bitmapMostrado = null;
     }
 
-    private void analizarImagenEstatica(InputImage image) {
+    private void analizarImagenEstatica(DecodificadorImagenes.Resultado imagen, int origen) {
         tvResultados.setText("Analizando imagen...");
         tvDatoCurioso.setVisibility(View.GONE);
-        imageLabeler.process(image)
-                .addOnSuccessListener(labels -> runOnUiThread(() -> mostrarResultadosImagen(labels)))
+        final Bitmap bitmap = imagen.bitmap;
+        bitmapsEnAnalisis.add(bitmap);
+        long inicioEtiquetadoNs = System.nanoTime();
+        imageLabeler.process(InputImage.fromBitmap(imagen.bitmap, imagen.rotacion))
+                .addOnSuccessListener(resultadosExecutor, labels -> {
+                    instrumentacion.registrar(Instrumentacion.Etapa.ETIQUETADO, inicioEtiquetadoNs);
+                    // La miniatura se copia antes de que el bitmap pueda volver al pool
+                    byte[] miniatura = labels.isEmpty()
+                            ? null : MiniaturasJpeg.comprimir(imagen.bitmap, imagen.rotacion);
+                    procesarResultadosImagen(labels, origen, miniatura);
+                })
                 .addOnFailureListener(e -> {
                     tvResultados.setText("Error al analizar la imagen.");
                     Log.e(TAG, "Fallo etiquetado imagen estática", e);
-                });
+                })
+                // En el mismo hilo y después del listener de éxito: ahí ya se terminó de leer el bitmap
+                .addOnCompleteListener(resultadosExecutor, task -> handlerUi.post(() -> terminarAnalisis(bitmap)));
     }
 
-    private void mostrarResultadosImagen(List<ImageLabel> labels) {
-        tvDatoCurioso.setVisibility(View.GONE);
+    // Hilo principal: cada etiquetado solo suelta su propio bitmap
+    private void terminarAnalisis(Bitmap bitmap) {
+        bitmapsEnAnalisis.remove(bitmap);
+        if (liberarAlTerminar.remove(bitmap)) decodificador.liberar(bitmap);
+    }
+
+    // Hilo de resultados
+    private void procesarResultadosImagen(List<ImageLabel> labels, int origen, byte[] miniatura) {
         if (labels.isEmpty()) {
-            tvResultados.setText("¡Uy! No reconozco nada. Intenta de nuevo.");
+            publicarImagen(VistaResultados.soloTexto("¡Uy! No reconozco nada. Intenta de nuevo."));
             return;
         }
 
-        StringBuilder sb = new StringBuilder();
-        boolean[] primera = {true};
-
+        LoteResultados lote = new LoteResultados(VENTANA_RESULTADOS);
         for (ImageLabel label : labels) {
-            String textoEnIngles = label.getText();
-            float confianza = label.getConfidence();
-
-            translatorEnToEs.translate(textoEnIngles)
-                    .addOnSuccessListener(traduccion -> runOnUiThread(() -> {
-                        sb.append(traduccion).append(" (").append(Math.round(confianza * 100)).append("%)\n");
-                        tvResultados.setText(sb.toString());
-
-                        if (primera[0]) {
-                            String datoCurioso = datosCuriosos.get(textoEnIngles.toLowerCase());
-                            tvDatoCurioso.setText(datoCurioso != null ? datoCurioso : "");
-                            tvDatoCurioso.setVisibility(datoCurioso != null ? View.VISIBLE : View.GONE);
-
-                            String mensajeHablar = "¡Veo " + traduccion + "!" + (datoCurioso != null ? " " + datoCurioso : "");
-                            hablar(mensajeHablar);
-                            primera[0] = false;
-                        }
-                    }))
-                    .addOnFailureListener(e -> Log.e(TAG, "Error traduciendo etiqueta", e));
+            if (lote.cantidad() >= VENTANA_RESULTADOS) break;
+            lote.agregar(label.getText(), label.getConfidence());
+        }
+
+        lote.traducir(traductorEtiquetas, l -> {
+            renderizador.reiniciar(null);
+            for (int i = 0; i < l.cantidad(); i++) {
+                renderizador.agregar(l.traducciones[i], l.confianzas[i]);
+            }
+            bitacora.registrar(l.traducciones[0], l.ingles[0], l.confianzas[0], origen, miniatura);
+            String dato = datosCuriosos.buscar(l.ingles[0]);
+            publicarImagen(VistaResultados.descubrimiento(renderizador.construir().toString(), dato,
+                    fraseAnuncio(l.traducciones[0], dato)));
+        });
+    }
+
+    private void publicarImagen(VistaResultados vista) {
+        long publicadaNs = System.nanoTime();
+        handlerUi.post(() -> {
+            mostrarVista(vista);
+            instrumentacion.registrar(Instrumentacion.Etapa.UI, publicadaNs);
+            registrarDisparo();
+        });
+    }
+
+    // Solo cuenta si la imagen vino de takePhoto()
+    private void registrarDisparo() {
+        if (inicioDisparoNs == 0) return;
+        Log.d(TAG, "Disparo → resultado: " + (System.nanoTime() - inicioDisparoNs) / 1000000 + " ms"
+                + (CAPTURA_EN_MEMORIA ? " (en memoria)" : " (vía archivo)"));
+        instrumentacion.registrar(Instrumentacion.Etapa.CAPTURA, inicioDisparoNs);
+        inicioDisparoNs = 0;
+    }
+
+    // Hilo principal: solo se aplica lo que ya viene armado
+    private void mostrarVista(VistaResultados vista) {
+        tvResultados.setText(vista.texto);
+        tvDatoCurioso.setText(vista.datoCurioso != null ? vista.datoCurioso : "");
+        tvDatoCurioso.setVisibility(vista.datoCurioso != null ? View.VISIBLE : View.GONE);
+        if (vista.esDescubrimiento) arranque.registrarPrimeraEtiqueta();
+        if (vista.frase != null) hablar(vista.frase, vista.cachearFrase);
+        for (int i = 0; i < vista.getCantidadPrecalentar(); i++) {
+            voz.precalentar(vista.getPrecalentar(i));
         }
     }
 
+    private static String fraseAnuncio(String traduccion, String datoCurioso) {
+        return "¡Veo " + traduccion + "!" + (datoCurioso != null ? " " + datoCurioso : "");
+    }
+
     private void setAppState(AppState state) {
         if (state == AppState.LIVE_CAMERA) {
+            liberarImagenMostrada();
             previewView.setVisibility(View.VISIBLE);
             ivImagen.setVisibility(View.GONE);
             btnCloseImage.setVisibility(View.GONE);
+            btnHistorial.setVisibility(View.VISIBLE);
             tvResultados.setText("Elige una opción abajo");
             tvDatoCurioso.setVisibility(View.GONE);
         } else {
             previewView.setVisibility(View.GONE);
             ivImagen.setVisibility(View.VISIBLE);
             btnCloseImage.setVisibility(View.VISIBLE);
+            btnHistorial.setVisibility(View.GONE);
+        }
+    }
+
+    // --- Gobernador térmico y de batería ---
+
+    private final Runnable evaluarGobernador = new Runnable() {
+        @Override
+        public void run() {
+            aplicarGobernador(gobernador.evaluar(SystemClock.elapsedRealtime()));
+            handlerUi.postDelayed(this, PERIODO_GOBERNADOR_MS);
+        }
+    };
+
+    // Solo llega una decisión cuando cambia la severidad; se registran todas
+    private void aplicarGobernador(GobernadorAnalisis.Decision decision) {
+        if (decision == null) return;
+        Log.i(TAG, "Gobernador: " + decision);
+        pipeline.setIntervaloMinimoMs(decision.intervaloMinimoMs);
+        if (politicaResolucion.setNivelMaximo(decision.nivelMaximoResolucion)) {
+            aplicarNivelAnalisis();
         }
     }
 
-    private void hablar(String texto) {
-        if (tts != null && texto != null && !texto.trim().isEmpty()) {
-            if (tts.isSpeaking()) tts.stop();
-            tts.speak(texto, TextToSpeech.QUEUE_FLUSH, null, "" + System.currentTimeMillis());
+    // --- Métricas ---
+
+    // En builds de depuración tvLiveStatus muestra p50/p95/p99 por etapa mientras se analiza
+    private void mostrarPanelLatencias(boolean mostrar) {
+        if (!BuildConfig.DEBUG) return;
+        handlerUi.removeCallbacks(actualizarPanelLatencias);
+        tvLiveStatus.setVisibility(mostrar ? View.VISIBLE : View.GONE);
+        if (mostrar) handlerUi.post(actualizarPanelLatencias);
+    }
+
+    private final Runnable actualizarPanelLatencias = new Runnable() {
+        @Override
+        public void run() {
+            tvLiveStatus.setText(politicaResolucion.resumen() + String.format(Locale.US,
+                    " · %.1f fps · %.1f etiq/s · gob %d\n", instrumentacion.getFramesPorSegundo(),
+                    politicaResolucion.getEtiquetadosPorSegundo(), gobernador.getActual().severidad)
+                    + instrumentacion.resumenCorto());
+            handlerUi.postDelayed(this, PERIODO_PANEL_MS);
+        }
+    };
+
+    // Con GRABAR_FRAMES los frames pasan por el grabador antes de llegar al pipeline
+    private FuenteFrames.Receptor receptorEnVivo() {
+        if (!GRABAR_FRAMES || !BuildConfig.DEBUG) return pipeline;
+        File dir = getExternalFilesDir("grabaciones");
+        if (dir == null) return pipeline;
+        File archivo = new File(dir, "frames-" + new SimpleDateFormat("yyyy-MM-dd-HH-mm-ss", Locale.US)
+                .format(System.currentTimeMillis()) + ".frm");
+        try {
+            grabador = new GrabadorFrames(archivo, pipeline);
+            Log.d(TAG, "Grabando frames en " + archivo);
+            return grabador;
+        } catch (IOException e) {
+            Log.e(TAG, "No se pudo iniciar la grabación de frames", e);
+            return pipeline;
         }
     }
 
-    private void crearMapaDeDatosCuriosos() {
-        datosCuriosos = new HashMap<>();
-        datosCuriosos.put("dog", "¿Sabías que los perros pueden oler cosas que nosotros ni imaginamos?");
-        datosCuriosos.put("cat", "¿Sabías que los gatos duermen casi todo el día para guardar energía?");
-        datosCuriosos.put("bird", "¿Sabías que los pájaros son familia de los dinosaurios?");
-        datosCuriosos.put("fish", "¿Sabías que los peces respiran usando branquias?");
-        datosCuriosos.put("car", "¿Sabías que el primer coche no corría más rápido que una persona caminando?");
-        datosCuriosos.put("bicycle", "¿Sabías que andar en bici es un súper ejercicio para tus piernas?");
-        datosCuriosos.put("sun", "¿Sabías que el Sol es una estrella gigante que nos da luz y calor?");
-        datosCuriosos.put("moon", "¿Sabías que la Luna es como el gran farol de la noche?");
-        datosCuriosos.put("cloud", "¿Sabías que las nubes están hechas de gotitas de agua muy pequeñas?");
-        datosCuriosos.put("book", "¿Sabías que cada libro es una aventura nueva esperando a ser leída?");
+    // En el hilo de cámara, detrás del último frame que se estaba grabando
+    private void cerrarGrabacion() {
+        if (grabador == null) return;
+        GrabadorFrames cerrando = grabador;
+        grabador = null;
+        cameraExecutor.execute(() -> {
+            try {
+                cerrando.cerrar();
+                Log.d(TAG, "Frames grabados: " + cerrando.getGrabados());
+            } catch (IOException e) {
+                Log.e(TAG, "Error al grabar frames", e);
+            }
+        });
     }
 
-    @Override
-    public void onInit(int status) {
-        if (status == TextToSpeech.SUCCESS) {
-            Locale spanish = new Locale("spa", "MX");
-            int result = tts.setLanguage(spanish);
-            if (result == TextToSpeech.LANG_MISSING_DATA || result == TextToSpeech.LANG_NOT_SUPPORTED) {
-                Log.e("TTS", "El idioma español no está soportado.");
+    // Guarda las latencias de la sesión en un archivo para diagnosticar en campo
+    private void volcarMetricas() {
+        File dir = getExternalFilesDir("metricas");
+        if (dir == null) return;
+        String nombre = "latencias-" + new SimpleDateFormat("yyyy-MM-dd-HH-mm-ss", Locale.US)
+                .format(System.currentTimeMillis()) + ".tsv";
+        File archivo = new File(dir, nombre);
+        long primeraEtiquetaMs = arranque.getPrimeraEtiquetaMs();
+        String frames = detectorCambio.resumen();
+        List<GobernadorAnalisis.Decision> decisiones = gobernador.getHistorial();
+        new Thread(() -> {
+            try (Writer out = new OutputStreamWriter(new FileOutputStream(archivo), StandardCharsets.UTF_8)) {
+                instrumentacion.volcar(out);
+                out.write("primera_etiqueta_ms\t" + primeraEtiquetaMs + "\n");
+                out.write("detector\t" + frames + "\n");
+                for (GobernadorAnalisis.Decision decision : decisiones) {
+                    out.write("gobernador\t" + decision.instanteMs + "\t" + decision + "\n");
+                }
+                Log.d(TAG, "Métricas guardadas en " + archivo);
+            } catch (IOException e) {
+                Log.e(TAG, "No se pudieron guardar las métricas", e);
             }
-        } else {
-            Log.e("TTS", "Falló inicialización TTS.");
+        }, "volcado-metricas").start();
+    }
+
+    // Con cachear, la frase queda sintetizada en disco para la próxima vez
+    private void hablar(String texto, boolean cachear) {
+        if (voz != null && texto != null && !texto.trim().isEmpty()) {
+            String id = "" + System.currentTimeMillis();
+            idVozActual = id;
+            inicioVozNs = System.nanoTime();
+            voz.hablar(texto, id, cachear);
         }
     }
 
+    @Override
+    protected void onStop() {
+        super.onStop();
+        bitacora.vaciar();
+    }
+
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        if (tts != null) {
-            tts.stop();
-            tts.shutdown();
+        if (traductorEtiquetas != null) {
+            Log.d(TAG, "Cache de traducciones: " + traductorEtiquetas.getCache().resumen());
         }
-        if (translatorEnToEs != null) {
-            translatorEnToEs.close();
+        handlerUi.removeCallbacks(actualizarPanelLatencias);
+        handlerUi.removeCallbacks(evaluarGobernador);
+        fuenteCamara.detener();
+        cerrarGrabacion();
+        cancelarLote();
+        if (voz != null) {
+            Log.d(TAG, "Cache de voz: " + voz.resumen());
+            voz.detener();
         }
-        cameraExecutor.shutdown();
+        motores.liberar();
     }
 }
@@ -0,0 +1,38 @@
+package com.example.exploradorvisualparanios;
+
+import java.nio.ByteBuffer;
+
+// Miniatura en escala de grises tomada del plano Y de un frame en vivo, antes de
+// que el frame vuelva a la cámara. Sin dependencias de Android: se comprime a JPEG
+// (MiniaturasJpeg.comprimir) ya en el hilo de resultados.
+public final class MiniaturaGris {
+
+    public final byte[] luma;
+    public final int ancho;
+    public final int alto;
+    public final int rotacion;
+
+    private MiniaturaGris(byte[] luma, int ancho, int alto, int rotacion) {
+        this.luma = luma;
+        this.ancho = ancho;
+        this.alto = alto;
+        this.rotacion = rotacion;
+    }
+
+    // Submuestrea el plano Y con un paso entero hasta que el lado mayor entre en `lado`
+    public static MiniaturaGris desde(FrameYuv frame, int lado) {
+        int paso = Math.max(1, (Math.max(frame.getAncho(), frame.getAlto()) + lado - 1) / lado);
+        int ancho = frame.getAncho() / paso;
+        int alto = frame.getAlto() / paso;
+        ByteBuffer y = frame.getPlano(0);
+        int fila = frame.getRowStride(0);
+        int pixel = frame.getPixelStride(0);
+        byte[] luma = new byte[ancho * alto];
+        int i = 0;
+        for (int f = 0; f < alto; f++) {
+            int base = f * paso * fila;
+            for (int x = 0; x < ancho; x++) luma[i++] = y.get(base + x * paso * pixel);
+        }
+        return new MiniaturaGris(luma, ancho, alto, frame.getRotacion());
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.exploradorvisualparanios;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+
+import java.io.ByteArrayOutputStream;
+
+// Miniaturas de los descubrimientos: JPEG chico y ya rotado. Se comprimen en el
+// hilo que tiene la imagen (resultados o lote), así la bitácora solo guarda bytes
+// y la imagen original puede volver al pool apenas se copia.
+public final class MiniaturasJpeg {
+
+    private static final int LADO = 96;
+    private static final int CALIDAD = 70;
+
+    private MiniaturasJpeg() {
+    }
+
+    // Miniatura del análisis en vivo, tomada del plano Y antes de devolver el frame
+    public static byte[] comprimir(MiniaturaGris gris) {
+        int[] pixeles = new int[gris.luma.length];
+        for (int i = 0; i < pixeles.length; i++) {
+            int y = gris.luma[i] & 0xFF;
+            pixeles[i] = 0xFF000000 | (y << 16) | (y << 8) | y;
+        }
+        Bitmap bitmap = Bitmap.createBitmap(pixeles, gris.ancho, gris.alto, Bitmap.Config.ARGB_8888);
+        byte[] jpeg = comprimir(bitmap, gris.rotacion);
+        bitmap.recycle();
+        return jpeg;
+    }
+
+    // Copia chica y rotada de una imagen; el original no se toca
+    public static byte[] comprimir(Bitmap original, int rotacion) {
+        float escala = Math.min(1f, (float) LADO / Math.max(original.getWidth(), original.getHeight()));
+        Matrix matriz = new Matrix();
+        matriz.postScale(escala, escala);
+        matriz.postRotate(rotacion);
+        // Sin escala ni rotación createBitmap devuelve el mismo bitmap
+        Bitmap copia = Bitmap.createBitmap(original, 0, 0, original.getWidth(), original.getHeight(), matriz, true);
+        ByteArrayOutputStream jpeg = new ByteArrayOutputStream(8 * 1024);
+        copia.compress(Bitmap.CompressFormat.JPEG, CALIDAD, jpeg);
+        if (copia != original) copia.recycle();
+        return jpeg.toByteArray();
+    }
+
+    // null si no hay bytes o no son una imagen
+    public static Bitmap decodificar(byte[] jpeg) {
+        return jpeg == null ? null : BitmapFactory.decodeByteArray(jpeg, 0, jpeg.length);
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.exploradorvisualparanios;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// El análisis en vivo, sin dependencias de Android: limitador del gobernador →
+// un frame en el etiquetador a la vez → detector de cambio de escena →
+// etiquetado → (hilo de resultados) política de resolución, filtrado,
+// deduplicación y traducción. Recibe frames de cualquier FuenteFrames, así la
+// misma tubería corre con la cámara o con una grabación en la JVM.
+// Un solo frame a la vez porque un ImageLabeler de ML Kit etiqueta de a uno: con
+// más en vuelo solo esperan en su cola, y cada resultado llega más tarde.
+public class PipelineEnVivo implements FuenteFrames.Receptor {
+
+    // Como las miniaturas de la bitácora
+    private static final int LADO_MINIATURA = 96;
+
+    // Todo en el hilo de resultados
+    public interface Oyente {
+        void alEtiquetarFrame();
+
+        // Etiquetas que acaban de estabilizarse, ya traducidas, con una miniatura del
+        // frame en el que aparecieron
+        void alPublicar(int[] indices, int cantidad, MiniaturaGris miniatura);
+
+        // La política de resolución cambió de nivel
+        void alCambiarNivel();
+
+        void alFallar(Exception e);
+    }
+
+    private final Etiquetador etiquetador;
+    private final DetectorCambioEscena detectorCambio;
+    private final ProcesadorEtiquetas procesador;
+    private final RegistroEtiquetas registro;
+    private final Traductor traductor;
+    private final PoliticaResolucion politica;
+    private final Instrumentacion instrumentacion;
+    private final Executor resultados;
+    private final Oyente oyente;
+
+    private final AtomicBoolean ocupado = new AtomicBoolean(false);
+    // Lo fija el gobernador y lo lee la fuente; ultimoAnalisisMs es del hilo de la fuente (-1 = ninguno)
+    private volatile long intervaloMinimoMs = 0;
+    private long ultimoAnalisisMs = -1;
+
+    public PipelineEnVivo(Etiquetador etiquetador, DetectorCambioEscena detectorCambio,
+                          ProcesadorEtiquetas procesador, RegistroEtiquetas registro, Traductor traductor,
+                          PoliticaResolucion politica, Instrumentacion instrumentacion,
+                          Executor resultados, Oyente oyente) {
+        this.etiquetador = etiquetador;
+        this.detectorCambio = detectorCambio;
+        this.procesador = procesador;
+        this.registro = registro;
+        this.traductor = traductor;
+        this.politica = politica;
+        this.instrumentacion = instrumentacion;
+        this.resultados = resultados;
+        this.oyente = oyente;
+    }
+
+    public void setIntervaloMinimoMs(long intervaloMinimoMs) {
+        this.intervaloMinimoMs = intervaloMinimoMs;
+    }
+
+    // Antes de empezar a entregar frames; el procesador se reinicia en la cola de
+    // resultados, antes que cualquier frame de la sesión nueva
+    public void reiniciar() {
+        detectorCambio.reiniciar();
+        resultados.execute(procesador::reiniciar);
+    }
+
+    @Override
+    public void alRecibir(FrameYuv frame) {
+        long llegadaNs = instrumentacion.frameRecibido();
+        // El gobernador puede limitar la tasa de análisis (equipo caliente o con poca batería)
+        long ahoraMs = frame.getInstanteMs();
+        if (ultimoAnalisisMs >= 0 && ahoraMs - ultimoAnalisisMs < intervaloMinimoMs) {
+            instrumentacion.frameLimitado();
+            frame.cerrar();
+            return;
+        }
+        if (!ocupado.compareAndSet(false, true)) {
+            instrumentacion.frameDescartado();
+            frame.cerrar();
+            return;
+        }
+
+        // Si la escena no cambió desde el último análisis, no se vuelve a etiquetar
+        ByteBuffer planoY = frame.getPlano(0);
+        if (!detectorCambio.debeAnalizar(planoY, frame.getAncho(), frame.getAlto(),
+                frame.getRowStride(0), frame.getPixelStride(0), ahoraMs)) {
+            instrumentacion.frameOmitido();
+            ocupado.set(false);
+            frame.cerrar();
+            return;
+        }
+
+        ultimoAnalisisMs = ahoraMs;
+        etiquetador.etiquetar(frame, resultados, new Etiquetador.Callback() {
+            // ETIQUETADO se mide desde que empieza la inferencia, sin la espera previa
+            private volatile long inicioEtiquetadoNs = System.nanoTime();
+
+            @Override
+            public void alEmpezar() {
+                inicioEtiquetadoNs = System.nanoTime();
+            }
+
+            @Override
+            public void alEtiquetar(Etiquetador.Etiquetas etiquetas) {
+                long etiquetadoNs = System.nanoTime() - inicioEtiquetadoNs;
+                instrumentacion.registrarDuracion(Instrumentacion.Etapa.ETIQUETADO, etiquetadoNs);
+                long etiquetadoMs = etiquetadoNs / 1000000;
+                if (politica.registrar(etiquetadoMs, ahoraMs + etiquetadoMs)) oyente.alCambiarNivel();
+                procesar(etiquetas, frame);
+                instrumentacion.registrar(Instrumentacion.Etapa.TOTAL, llegadaNs);
+                terminar(frame);
+            }
+
+            @Override
+            public void alFallar(Exception e) {
+                oyente.alFallar(e);
+                terminar(frame);
+            }
+        });
+    }
+
+    private void terminar(FrameYuv frame) {
+        ocupado.set(false);
+        frame.cerrar();
+    }
+
+    // Hilo de resultados, con el frame todavía abierto. Recorre las etiquetas por
+    // índice: por frame no se reserva memoria y solo se publica algo (con su
+    // miniatura) si aparecieron etiquetas nuevas.
+    private void procesar(Etiquetador.Etiquetas etiquetas, FrameYuv frame) {
+        long inicioNs = System.nanoTime();
+        oyente.alEtiquetarFrame();
+        procesador.iniciarFrame(frame.getInstanteMs());
+        for (int i = 0; i < etiquetas.cantidad(); i++) {
+            procesador.observar(etiquetas.indice(i), etiquetas.texto(i), etiquetas.confianza(i));
+        }
+        int cantidad = procesador.cerrarFrame();
+        if (cantidad > 0) {
+            // Solo las etiquetas que acaban de estabilizarse se traducen, muestran y dicen,
+            // con una sola publicación cuando estén todas las traducciones
+            MiniaturaGris miniatura = MiniaturaGris.desde(frame, LADO_MINIATURA);
+            registro.asegurarTraducciones(procesador.getNuevas(), cantidad, traductor,
+                    (indices, traducidas) -> oyente.alPublicar(indices, traducidas, miniatura));
+        }
+        instrumentacion.registrar(Instrumentacion.Etapa.RESULTADOS, inicioNs);
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.exploradorvisualparanios;
+
+// Elige la resolución de los frames de análisis en vivo entre unos pocos niveles.
+// Arranca en un nivel según el equipo y, con la latencia media de las últimas
+// inferencias, baja un nivel si no alcanza la tasa de etiquetado objetivo.
+// La inferencia casi no depende de la resolución, así que una latencia baja no
+// alcanza para subir: se sube solo si la latencia esperada en el nivel de arriba
+// (la que se midió ahí, o la actual escalada por la cantidad de píxeles si nunca
+// se midió) deja holgura. Después de cada cambio espera una ventana completa de
+// mediciones con la nueva resolución antes de volver a decidir. El gobernador
+// térmico puede ponerle un nivel máximo por encima del cual no sube.
+public class PoliticaResolucion {
+
+    // Niveles 4:3 (ancho x alto); el etiquetador trabaja internamente con entradas
+    // pequeñas, así que más de 640x480 no mejora las etiquetas. El gobernador baja
+    // un nivel por grado de severidad: el primero queda para la severidad crítica
+    static final int[][] NIVELES = {{256, 192}, {320, 240}, {480, 360}, {640, 480}};
+
+    private static final int VENTANA = 8;
+    private static final long ESPERA_MINIMA_MS = 3000;
+    private static final long ESPERA_PENDIENTE = -1;
+    // Se sube solo si la latencia esperada arriba queda por debajo de esta fracción del presupuesto
+    private static final float HOLGURA_PARA_SUBIR = 0.5f;
+
+    private final float presupuestoMs;
+    private final long[] latencias = new long[VENTANA];
+    private final long[] instantes = new long[VENTANA];
+    private int cantidad = 0;
+    private int siguiente = 0;
+    private long suma = 0;
+    // Última latencia media medida en cada nivel durante la sesión (0 = sin medir)
+    private final float[] mediaPorNivel = new float[NIVELES.length];
+
+    private int nivel;
+    private int nivelMaximo = NIVELES.length - 1;
+    // En el reloj de los frames; ESPERA_PENDIENTE = arranca con la próxima medición
+    private long ultimoCambioMs = 0;
+    private int cambios = 0;
+
+    public PoliticaResolucion(float etiquetadosPorSegundoObjetivo, int nivelInicial) {
+        this.presupuestoMs = 1000f / etiquetadosPorSegundoObjetivo;
+        this.nivel = Math.max(0, Math.min(NIVELES.length - 1, nivelInicial));
+    }
+
+    // Nivel de arranque por equipo; ninguno arranca en el nivel de la severidad crítica
+    public static int nivelInicial(int nucleos, int memoriaClaseMb, boolean bajaMemoria) {
+        if (bajaMemoria || nucleos <= 4) return 1;
+        if (nucleos >= 8 && memoriaClaseMb >= 256) return 3;
+        return 2;
+    }
+
+    // Registra la latencia de una inferencia; devuelve true si hay que cambiar de nivel
+    public synchronized boolean registrar(long latenciaMs, long ahoraMs) {
+        suma += latenciaMs - latencias[siguiente];
+        latencias[siguiente] = latenciaMs;
+        instantes[siguiente] = ahoraMs;
+        siguiente = (siguiente + 1) % VENTANA;
+        if (cantidad < VENTANA) cantidad++;
+        if (ultimoCambioMs == ESPERA_PENDIENTE) ultimoCambioMs = ahoraMs;
+
+        if (cantidad < VENTANA || ahoraMs - ultimoCambioMs < ESPERA_MINIMA_MS) return false;
+        float media = (float) suma / cantidad;
+        mediaPorNivel[nivel] = media;
+        int nuevo = nivel;
+        if (media > presupuestoMs && nivel > 0) {
+            nuevo = nivel - 1;
+        } else if (nivel < nivelMaximo && latenciaEsperada(nivel + 1, media) < presupuestoMs * HOLGURA_PARA_SUBIR) {
+            nuevo = nivel + 1;
+        }
+        if (nuevo == nivel) return false;
+
+        nivel = nuevo;
+        ultimoCambioMs = ahoraMs;
+        cambios++;
+        vaciarVentana();
+        return true;
+    }
+
+    // Devuelve true si el nivel actual quedó por encima del tope y hay que bajarlo ya.
+    // Lo llama el gobernador, que no tiene el reloj de los frames: la espera después
+    // del cambio se cuenta desde la próxima medición.
+    public synchronized boolean setNivelMaximo(int maximo) {
+        nivelMaximo = Math.max(0, Math.min(NIVELES.length - 1, maximo));
+        if (nivel <= nivelMaximo) return false;
+        nivel = nivelMaximo;
+        ultimoCambioMs = ESPERA_PENDIENTE;
+        cambios++;
+        vaciarVentana();
+        return true;
+    }
+
+    public synchronized int getNivel() {
+        return nivel;
+    }
+
+    public synchronized int getAncho() {
+        return NIVELES[nivel][0];
+    }
+
+    public synchronized int getAlto() {
+        return NIVELES[nivel][1];
+    }
+
+    public synchronized int getCambios() {
+        return cambios;
+    }
+
+    // Inferencias por segundo en la ventana actual (0 si todavía no hay suficientes)
+    public synchronized float getEtiquetadosPorSegundo() {
+        if (cantidad < 2) return 0f;
+        int primero = (siguiente - cantidad + VENTANA) % VENTANA;
+        int ultimo = (siguiente - 1 + VENTANA) % VENTANA;
+        long intervalo = instantes[ultimo] - instantes[primero];
+        return intervalo <= 0 ? 0f : (cantidad - 1) * 1000f / intervalo;
+    }
+
+    public synchronized void reiniciar() {
+        vaciarVentana();
+        ultimoCambioMs = 0;
+        for (int i = 0; i < mediaPorNivel.length; i++) mediaPorNivel[i] = 0;
+    }
+
+    public synchronized String resumen() {
+        return NIVELES[nivel][0] + "x" + NIVELES[nivel][1] + " (nivel " + (nivel + 1) + "/" + NIVELES.length
+                + ", " + cambios + " cambios)";
+    }
+
+    // Sin medición en ese nivel se supone lo peor: latencia proporcional a los píxeles
+    private float latenciaEsperada(int otroNivel, float mediaActual) {
+        if (mediaPorNivel[otroNivel] > 0) return mediaPorNivel[otroNivel];
+        float pixeles = (float) NIVELES[otroNivel][0] * NIVELES[otroNivel][1];
+        return mediaActual * pixeles / (NIVELES[nivel][0] * NIVELES[nivel][1]);
+    }
+
+    private void vaciarVentana() {
+        for (int i = 0; i < VENTANA; i++) latencias[i] = 0;
+        cantidad = 0;
+        siguiente = 0;
+        suma = 0;
+    }
+}
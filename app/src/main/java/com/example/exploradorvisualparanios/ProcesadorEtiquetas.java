@@ -0,0 +1,59 @@
+package com.example.exploradorvisualparanios;
+
+// Post-proceso de cada frame en vivo, sin dependencias de Android: filtra por
+// confianza, registra la etiqueta, la pasa por el estabilizador (deduplicación)
+// y arma el texto de resultados. No reserva memoria por frame.
+public class ProcesadorEtiquetas {
+
+    private final RegistroEtiquetas registro;
+    private final EstabilizadorEtiquetas estabilizador;
+    private final float confianzaMinima;
+    private final int[] nuevas;
+
+    public ProcesadorEtiquetas(RegistroEtiquetas registro, EstabilizadorEtiquetas estabilizador,
+                               float confianzaMinima, int maxPorFrame) {
+        this.registro = registro;
+        this.estabilizador = estabilizador;
+        this.confianzaMinima = confianzaMinima;
+        this.nuevas = new int[maxPorFrame];
+    }
+
+    public void iniciarFrame(long ahoraMs) {
+        estabilizador.iniciarFrame(ahoraMs);
+    }
+
+    public void observar(int indice, String textoEnIngles, float confianza) {
+        if (confianza < confianzaMinima) return;
+        registro.registrar(indice, textoEnIngles);
+        estabilizador.observar(indice, confianza);
+    }
+
+    // Cantidad de etiquetas que acaban de estabilizarse; sus índices quedan en getNuevas()
+    public int cerrarFrame() {
+        return estabilizador.cerrarFrame(nuevas);
+    }
+
+    public int[] getNuevas() {
+        return nuevas;
+    }
+
+    // Agrega las etiquetas (ya traducidas) a la ventana y devuelve el texto a publicar
+    public CharSequence armarResultados(int[] indices, int cantidad, RenderizadorResultados renderizador) {
+        for (int i = 0; i < cantidad; i++) {
+            renderizador.agregar(registro.getTraduccion(indices[i]), estabilizador.getUltimaConfianza(indices[i]));
+        }
+        return renderizador.construir();
+    }
+
+    public float getConfianza(int indice) {
+        return estabilizador.getUltimaConfianza(indice);
+    }
+
+    public void reiniciar() {
+        estabilizador.reiniciar();
+    }
+
+    public String resumen() {
+        return estabilizador.resumen();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.exploradorvisualparanios;
+
+import java.util.Arrays;
+
+// Información por etiqueta indexada por ImageLabel.getIndex(): texto original,
+// traducción y su entrada en el índice de datos curiosos. Cada etiqueta se
+// resuelve una sola vez y después el camino de cada frame solo lee arreglos.
+public class RegistroEtiquetas {
+
+    public interface AlTraducir {
+        void listo(int[] indices, int cantidad);
+    }
+
+    // El modelo por defecto de ML Kit tiene unas 450 etiquetas
+    private static final int CAPACIDAD_INICIAL = 512;
+
+    private final DatosCuriosos datosCuriosos;
+
+    private String[] ingles = new String[CAPACIDAD_INICIAL];
+    private String[] traducciones = new String[CAPACIDAD_INICIAL];
+    // 0 = sin resolver, -1 = sin datos curiosos, n + 1 = etiqueta n del índice
+    private int[] entradasDatos = new int[CAPACIDAD_INICIAL];
+
+    public RegistroEtiquetas(DatosCuriosos datosCuriosos) {
+        this.datosCuriosos = datosCuriosos;
+    }
+
+    public void registrar(int indice, String textoEnIngles) {
+        if (indice >= ingles.length) crecer(indice);
+        if (ingles[indice] == null) ingles[indice] = textoEnIngles;
+    }
+
+    public String getIngles(int indice) {
+        return ingles[indice];
+    }
+
+    // Si la traducción falló se muestra la etiqueta original hasta que otra funcione
+    public String getTraduccion(int indice) {
+        String traduccion = traducciones[indice];
+        return traduccion != null ? traduccion : ingles[indice];
+    }
+
+    // Si la etiqueta tiene varios datos curiosos, cada llamada devuelve el siguiente
+    public String getDatoCurioso(int indice) {
+        int entrada = entradaDatos(indice);
+        return entrada < 0 ? null : datosCuriosos.siguienteDato(entrada);
+    }
+
+    // El dato que devolverá el próximo getDatoCurioso(), para adelantar trabajo (voz)
+    public String verDatoCurioso(int indice) {
+        int entrada = entradaDatos(indice);
+        return entrada < 0 ? null : datosCuriosos.verSiguienteDato(entrada);
+    }
+
+    // Si todas las etiquetas ya tienen traducción avisa en el acto con el mismo arreglo;
+    // si no, copia los índices y avisa cuando terminen las traducciones pendientes.
+    // Una traducción fallida no se guarda: avisa igual y la próxima aparición reintenta.
+    public void asegurarTraducciones(int[] indices, int cantidad, Traductor traductor, AlTraducir alTraducir) {
+        int faltantes = 0;
+        for (int i = 0; i < cantidad; i++) {
+            if (traducciones[indices[i]] == null) faltantes++;
+        }
+        if (faltantes == 0) {
+            alTraducir.listo(indices, cantidad);
+            return;
+        }
+
+        final int[] copia = Arrays.copyOf(indices, cantidad);
+        final int[] pendientes = {faltantes};
+        for (int i = 0; i < cantidad; i++) {
+            final int indice = copia[i];
+            if (traducciones[indice] != null) continue;
+            traductor.traducir(ingles[indice], traduccion -> {
+                traducciones[indice] = traduccion;
+                if (--pendientes[0] == 0) alTraducir.listo(copia, cantidad);
+            });
+        }
+    }
+
+    private int entradaDatos(int indice) {
+        if (entradasDatos[indice] == 0) {
+            entradasDatos[indice] = datosCuriosos.buscarEtiqueta(ingles[indice]) + 1;
+            if (entradasDatos[indice] == 0) entradasDatos[indice] = -1;
+        }
+        return entradasDatos[indice] - 1;
+    }
+
+    private void crecer(int indice) {
+        int capacidad = Math.max(indice + 1, ingles.length * 2);
+        ingles = Arrays.copyOf(ingles, capacidad);
+        traducciones = Arrays.copyOf(traducciones, capacidad);
+        entradasDatos = Arrays.copyOf(entradasDatos, capacidad);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.exploradorvisualparanios;
+
+// Arma el texto de tvResultados con una ventana fija de los descubrimientos más
+// recientes. Guarda referencias y porcentajes en arreglos y reutiliza el mismo
+// StringBuilder, así cada publicación cuesta lo mismo sin importar cuánto dure la sesión.
+public class RenderizadorResultados {
+
+    private final String[] traducciones;
+    private final int[] porcentajes;
+    private final StringBuilder buffer = new StringBuilder(256);
+
+    private String encabezado = "";
+    private int siguiente = 0;
+    private int cantidad = 0;
+
+    public RenderizadorResultados(int tamanoVentana) {
+        traducciones = new String[tamanoVentana];
+        porcentajes = new int[tamanoVentana];
+    }
+
+    public void reiniciar(String encabezado) {
+        this.encabezado = encabezado != null ? encabezado : "";
+        for (int i = 0; i < traducciones.length; i++) traducciones[i] = null;
+        siguiente = 0;
+        cantidad = 0;
+    }
+
+    // Si la ventana está llena se descarta el descubrimiento más antiguo
+    public void agregar(String traduccion, float confianza) {
+        traducciones[siguiente] = traduccion;
+        porcentajes[siguiente] = Math.round(confianza * 100);
+        siguiente = (siguiente + 1) % traducciones.length;
+        if (cantidad < traducciones.length) cantidad++;
+    }
+
+    public boolean estaVacio() {
+        return cantidad == 0;
+    }
+
+    // El CharSequence devuelto se reutiliza: hay que consumirlo (setText) antes de volver a construir
+    public CharSequence construir() {
+        buffer.setLength(0);
+        if (!encabezado.isEmpty()) {
+            buffer.append(encabezado).append('\n');
+        }
+        int primero = (siguiente - cantidad + traducciones.length) % traducciones.length;
+        for (int i = 0; i < cantidad; i++) {
+            int pos = (primero + i) % traducciones.length;
+            buffer.append(traducciones[pos]).append(" (").append(porcentajes[pos]).append("%)\n");
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.exploradorvisualparanios;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.zip.InflaterInputStream;
+
+// Reproduce una grabación de GrabadorFrames. Con velocidad 1 respeta los tiempos
+// originales, con 4 va cuatro veces más rápido y con 0 entrega los frames sin
+// esperar. Cada frame conserva su instante grabado, así el limitador, el detector
+// de escena y el estabilizador deciden lo mismo a cualquier velocidad; con un
+// etiquetador y un ejecutor sincrónicos la reproducción es determinista.
+public class ReproductorFrames implements FuenteFrames {
+
+    private final File archivo;
+    private final float velocidad;
+    private volatile boolean detenido = false;
+    private Thread hilo;
+
+    public ReproductorFrames(File archivo, float velocidad) {
+        this.archivo = archivo;
+        this.velocidad = velocidad;
+    }
+
+    @Override
+    public synchronized void iniciar(Receptor receptor) {
+        detenido = false;
+        hilo = new Thread(() -> {
+            try {
+                reproducir(receptor);
+            } catch (IOException e) {
+                throw new IllegalStateException("No se pudo reproducir " + archivo, e);
+            }
+        }, "reproductor-frames");
+        hilo.start();
+    }
+
+    @Override
+    public synchronized void detener() {
+        detenido = true;
+        if (hilo != null) hilo.interrupt();
+    }
+
+    // En el hilo que llama; devuelve la cantidad de frames entregados
+    public int reproducir(Receptor receptor) throws IOException {
+        try (DataInputStream entrada = new DataInputStream(new InflaterInputStream(
+                new BufferedInputStream(new FileInputStream(archivo), 64 * 1024)))) {
+            if (entrada.readInt() != GrabadorFrames.MAGIA || entrada.readInt() != GrabadorFrames.VERSION) {
+                throw new IOException("No es una grabación de frames: " + archivo);
+            }
+            long inicioNs = System.nanoTime();
+            long primerInstanteMs = -1;
+            int entregados = 0;
+            while (!detenido) {
+                FrameGrabado frame = leer(entrada);
+                if (frame == null) break;
+                if (primerInstanteMs < 0) primerInstanteMs = frame.getInstanteMs();
+                if (velocidad > 0 && !esperar(inicioNs, (frame.getInstanteMs() - primerInstanteMs) / velocidad)) break;
+                receptor.alRecibir(frame);
+                entregados++;
+            }
+            return entregados;
+        }
+    }
+
+    private static FrameGrabado leer(DataInputStream entrada) throws IOException {
+        long instanteMs;
+        try {
+            instanteMs = entrada.readLong();
+        } catch (EOFException e) {
+            return null;
+        }
+        int ancho = entrada.readInt();
+        int alto = entrada.readInt();
+        int rotacion = entrada.readInt();
+        byte[] nv21 = new byte[FrameGrabado.tamanoNv21(ancho, alto)];
+        entrada.readFully(nv21);
+        return new FrameGrabado(instanteMs, ancho, alto, rotacion, nv21);
+    }
+
+    // Espera hasta que hayan pasado desdeInicioMs desde el comienzo; false si la interrumpen
+    private static boolean esperar(long inicioNs, float desdeInicioMs) {
+        long restanteMs = (long) desdeInicioMs - (System.nanoTime() - inicioNs) / 1000000;
+        if (restanteMs <= 0) return true;
+        try {
+            Thread.sleep(restanteMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
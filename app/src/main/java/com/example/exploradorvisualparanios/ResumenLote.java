@@ -0,0 +1,92 @@
+package com.example.exploradorvisualparanios;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Resultados de un lote de fotos, en el orden en que se eligieron aunque
+// terminen en otro orden. De cada foto solo se guardan sus etiquetas traducidas.
+// Se usa desde un solo hilo (el de resultados).
+public class ResumenLote {
+
+    private final LoteResultados[] lotes;
+    private final boolean[] terminada;
+    private final StringBuilder buffer = new StringBuilder(512);
+    private int terminadas = 0;
+
+    public ResumenLote(int total) {
+        lotes = new LoteResultados[total];
+        terminada = new boolean[total];
+    }
+
+    // lote == null si la foto no se pudo abrir o etiquetar
+    void registrar(int posicion, LoteResultados lote) {
+        if (terminada[posicion]) return;
+        lotes[posicion] = lote;
+        terminada[posicion] = true;
+        terminadas++;
+    }
+
+    public int getTotal() {
+        return lotes.length;
+    }
+
+    public int getTerminadas() {
+        return terminadas;
+    }
+
+    public boolean estaCompleto() {
+        return terminadas == lotes.length;
+    }
+
+    // Una línea por foto terminada; el CharSequence se reutiliza en la siguiente llamada
+    public CharSequence construir() {
+        buffer.setLength(0);
+        buffer.append(estaCompleto() ? "¡Revisé " : "Revisando fotos... ")
+                .append(terminadas).append('/').append(lotes.length);
+        if (estaCompleto()) buffer.append(" fotos!");
+        buffer.append('\n');
+        for (int i = 0; i < lotes.length; i++) {
+            if (!terminada[i]) continue;
+            buffer.append("Foto ").append(i + 1).append(": ");
+            LoteResultados lote = lotes[i];
+            if (lote == null) {
+                buffer.append("no se pudo abrir");
+            } else if (lote.cantidad() == 0) {
+                buffer.append("no reconozco nada");
+            } else {
+                for (int j = 0; j < lote.cantidad(); j++) {
+                    if (j > 0) buffer.append(", ");
+                    buffer.append(lote.traducciones[j]).append(" (")
+                            .append(Math.round(lote.confianzas[j] * 100)).append("%)");
+                }
+            }
+            buffer.append('\n');
+        }
+        return buffer;
+    }
+
+    // Lo que se dice al terminar el lote
+    public String fraseFinal() {
+        String masVista = getMasVista();
+        return "¡Revisé " + lotes.length + " fotos!" + (masVista != null ? " Lo que más vi fue " + masVista + "." : "");
+    }
+
+    // Etiqueta principal que más se repite entre las fotos, o null si no hubo ninguna
+    public String getMasVista() {
+        Map<String, Integer> conteo = new HashMap<>();
+        String masVista = null;
+        int maximo = 0;
+        for (LoteResultados lote : lotes) {
+            if (lote == null || lote.cantidad() == 0) continue;
+            String traduccion = lote.traducciones[0];
+            Integer anterior = conteo.get(traduccion);
+            int veces = anterior == null ? 1 : anterior + 1;
+            conteo.put(traduccion, veces);
+            if (veces > maximo) {
+                maximo = veces;
+                masVista = traduccion;
+            }
+        }
+        return masVista;
+    }
+}
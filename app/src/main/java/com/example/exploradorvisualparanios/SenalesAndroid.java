@@ -0,0 +1,51 @@
+package com.example.exploradorvisualparanios;
+
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.BatteryManager;
+import android.os.Build;
+import android.os.PowerManager;
+
+// Señales de energía del sistema. Cada lectura es una llamada al sistema:
+// se consultan con el período del gobernador, nunca por frame.
+public class SenalesAndroid implements SenalesEnergia {
+
+    private final Context context;
+    private final PowerManager powerManager;
+    private final BatteryManager batteryManager;
+
+    public SenalesAndroid(Context context) {
+        this.context = context.getApplicationContext();
+        this.powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        this.batteryManager = (BatteryManager) context.getSystemService(Context.BATTERY_SERVICE);
+    }
+
+    @Override
+    public int getEstadoTermico() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.Q || powerManager == null) return -1;
+        return powerManager.getCurrentThermalStatus();
+    }
+
+    @Override
+    public int getNivelBateria() {
+        if (batteryManager == null) return -1;
+        int nivel = batteryManager.getIntProperty(BatteryManager.BATTERY_PROPERTY_CAPACITY);
+        return nivel > 0 && nivel <= 100 ? nivel : -1;
+    }
+
+    @Override
+    public boolean estaCargando() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M && batteryManager != null) {
+            return batteryManager.isCharging();
+        }
+        // Broadcast fijo: registrar con receptor null solo lee el último valor
+        Intent estado = context.registerReceiver(null, new IntentFilter(Intent.ACTION_BATTERY_CHANGED));
+        return estado != null && estado.getIntExtra(BatteryManager.EXTRA_PLUGGED, 0) != 0;
+    }
+
+    @Override
+    public boolean enAhorroDeEnergia() {
+        return powerManager != null && powerManager.isPowerSaveMode();
+    }
+}
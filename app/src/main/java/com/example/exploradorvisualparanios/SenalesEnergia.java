@@ -0,0 +1,17 @@
+package com.example.exploradorvisualparanios;
+
+// Fuente de las señales que mira GobernadorAnalisis. En el equipo es
+// SenalesAndroid; en las pruebas, una implementación con valores fijos.
+public interface SenalesEnergia {
+
+    // Mismos valores que PowerManager.THERMAL_STATUS_* (0 = sin calentamiento, 6 = apagado);
+    // -1 si el equipo no lo informa
+    int getEstadoTermico();
+
+    // 0-100, o -1 si no se sabe
+    int getNivelBateria();
+
+    boolean estaCargando();
+
+    boolean enAhorroDeEnergia();
+}
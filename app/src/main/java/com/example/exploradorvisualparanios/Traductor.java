@@ -0,0 +1,14 @@
+package com.example.exploradorvisualparanios;
+
+// Traducción de etiquetas inglés → español. El callback puede llamarse en el acto
+// (traducción en cache) o más tarde, cuando termine una traducción asíncrona.
+// Si la traducción falla llega null: quien llama decide qué mostrar y no guarda
+// nada, así la próxima vez se vuelve a intentar.
+public interface Traductor {
+
+    interface Callback {
+        void onTraduccion(String traduccion);
+    }
+
+    void traducir(String textoEnIngles, Callback callback);
+}
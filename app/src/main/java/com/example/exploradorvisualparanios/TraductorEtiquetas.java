@@ -0,0 +1,94 @@
+package com.example.exploradorvisualparanios;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.google.mlkit.nl.translate.Translator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+// Traduce etiquetas pasando primero por CacheTraducciones; solo llama a ML Kit
+// cuando ningún nivel de la cache conoce la etiqueta. Los callbacks asíncronos
+// llegan en el ejecutor de resultados, el mismo hilo desde el que se traduce.
+public class TraductorEtiquetas implements Traductor {
+
+    private static final String TAG = "TraductorEtiquetas";
+    private static final String ASSET_DICCIONARIO = "etiquetas_es.tsv";
+    private static final String PREFS_TRADUCCIONES = "traducciones_cache";
+    private static final int CAPACIDAD_LRU = 256;
+
+    private final Translator translator;
+    private final CacheTraducciones cache;
+    private final Executor ejecutorCallbacks;
+    private final Instrumentacion instrumentacion;
+
+    public TraductorEtiquetas(Context context, Translator translator, Executor ejecutorCallbacks,
+                              Instrumentacion instrumentacion) {
+        this.translator = translator;
+        this.ejecutorCallbacks = ejecutorCallbacks;
+        this.instrumentacion = instrumentacion;
+        this.cache = new CacheTraducciones(CAPACIDAD_LRU, cargarDiccionario(context),
+                new AlmacenPreferencias(context.getSharedPreferences(PREFS_TRADUCCIONES, Context.MODE_PRIVATE)));
+    }
+
+    // Si la traducción está en cache el callback se llama de inmediato, sin ida y vuelta asíncrona
+    @Override
+    public void traducir(String textoEnIngles, Callback callback) {
+        String traduccion = cache.buscar(textoEnIngles);
+        if (traduccion != null) {
+            callback.onTraduccion(traduccion);
+            return;
+        }
+
+        long inicioNs = System.nanoTime();
+        translator.translate(textoEnIngles)
+                .addOnCompleteListener(ejecutorCallbacks, tarea -> {
+                    String resultado = null;
+                    if (tarea.isSuccessful()) {
+                        instrumentacion.registrar(Instrumentacion.Etapa.TRADUCCION, inicioNs);
+                        resultado = tarea.getResult();
+                    } else {
+                        Log.e(TAG, "Error traduciendo etiqueta", tarea.getException());
+                    }
+                    // Un fallo llega como null: la cache no lo guarda y se reintenta la próxima vez
+                    cache.guardar(textoEnIngles, resultado);
+                    callback.onTraduccion(resultado);
+                });
+    }
+
+    public CacheTraducciones getCache() {
+        return cache;
+    }
+
+    private static Map<String, String> cargarDiccionario(Context context) {
+        try (InputStream in = context.getAssets().open(ASSET_DICCIONARIO)) {
+            return CacheTraducciones.cargarDiccionario(in);
+        } catch (IOException e) {
+            Log.e(TAG, "No se pudo cargar el diccionario de etiquetas", e);
+            return Collections.emptyMap();
+        }
+    }
+
+    private static class AlmacenPreferencias implements CacheTraducciones.Almacen {
+        private final SharedPreferences prefs;
+
+        AlmacenPreferencias(SharedPreferences prefs) {
+            this.prefs = prefs;
+        }
+
+        @Override
+        public String leer(String clave) {
+            return prefs.getString(clave, null);
+        }
+
+        @Override
+        public void guardar(String clave, String valor) {
+            prefs.edit().putString(clave, valor).apply();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.exploradorvisualparanios;
+
+// Lo que hay que mostrar y decir para un frame, una imagen o un lote, ya armado
+// en el hilo de resultados. Es inmutable: se publica al hilo principal con un
+// solo post y ahí solo se aplica (setText, visibilidad, voz).
+public final class VistaResultados {
+
+    private static final String[] SIN_FRASES = new String[0];
+
+    public final String texto;
+    // null oculta el dato curioso
+    public final String datoCurioso;
+    // null no dice nada
+    public final String frase;
+    public final boolean cachearFrase;
+    // Frases que probablemente se digan pronto, para sintetizarlas por adelantado
+    private final String[] precalentar;
+    // La frase anuncia una etiqueta nueva (cuenta como primera etiqueta del arranque)
+    public final boolean esDescubrimiento;
+
+    private VistaResultados(String texto, String datoCurioso, String frase, boolean cachearFrase,
+                            String[] precalentar, boolean esDescubrimiento) {
+        this.texto = texto;
+        this.datoCurioso = datoCurioso;
+        this.frase = frase;
+        this.cachearFrase = cachearFrase;
+        this.precalentar = precalentar;
+        this.esDescubrimiento = esDescubrimiento;
+    }
+
+    // Solo texto, sin dato ni voz
+    public static VistaResultados soloTexto(String texto) {
+        return new VistaResultados(texto, null, null, false, SIN_FRASES, false);
+    }
+
+    // Texto con una frase que no se guarda en la cache de voz (resumen de un lote)
+    public static VistaResultados conFrase(String texto, String frase) {
+        return new VistaResultados(texto, null, frase, false, SIN_FRASES, false);
+    }
+
+    // "¡Veo ...!" con el dato curioso, cacheando la frase. El arreglo pasa a ser de la vista.
+    public static VistaResultados descubrimiento(String texto, String datoCurioso, String frase,
+                                                 String... precalentar) {
+        return new VistaResultados(texto, datoCurioso, frase, true, precalentar, true);
+    }
+
+    public int getCantidadPrecalentar() {
+        return precalentar.length;
+    }
+
+    public String getPrecalentar(int i) {
+        return precalentar[i];
+    }
+}
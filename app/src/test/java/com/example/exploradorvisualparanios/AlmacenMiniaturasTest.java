@@ -0,0 +1,120 @@
+package com.example.exploradorvisualparanios;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+// leer() nunca devuelve bytes de un registro que no sea exactamente el que se guardó
+public class AlmacenMiniaturasTest {
+
+    private static final byte[] PRIMERA = {1, 2, 3, 4, 5, 6, 7, 8, 9};
+    private static final byte[] SEGUNDA = {10, 20, 30};
+
+    @Rule
+    public final TemporaryFolder carpeta = new TemporaryFolder();
+
+    private File ruta;
+    private AlmacenMiniaturas almacen;
+    private long primera;
+    private long segunda;
+
+    @Before
+    public void guardarDos() throws IOException {
+        ruta = carpeta.newFile("miniaturas.dat");
+        almacen = new AlmacenMiniaturas(ruta);
+        primera = almacen.guardar(PRIMERA);
+        segunda = almacen.guardar(SEGUNDA);
+        almacen.forzar();
+    }
+
+    @After
+    public void cerrar() throws IOException {
+        almacen.cerrar();
+    }
+
+    @Test
+    public void cadaOffsetDevuelveSusBytes() throws IOException {
+        assertEquals(0, primera);
+        assertArrayEquals(PRIMERA, almacen.leer(primera));
+        assertArrayEquals(SEGUNDA, almacen.leer(segunda));
+
+        almacen.cerrar();
+        almacen = new AlmacenMiniaturas(ruta);
+        assertArrayEquals(SEGUNDA, almacen.leer(segunda));
+        // Al reabrir se sigue agregando al final
+        long tercera = almacen.guardar(PRIMERA);
+        assertEquals(segunda + 8 + SEGUNDA.length, tercera);
+        assertArrayEquals(PRIMERA, almacen.leer(tercera));
+    }
+
+    @Test
+    public void unOffsetFueraDelArchivoNoDevuelveNada() throws IOException {
+        long largo = ruta.length();
+        assertNull(almacen.leer(-1));
+        assertNull(almacen.leer(largo));
+        assertNull(almacen.leer(largo - 4));
+        assertNull(almacen.leer(Long.MAX_VALUE - 4));
+    }
+
+    // Un offset que cae dentro de otro registro lee basura como encabezado
+    @Test
+    public void unOffsetEnMedioDeUnRegistroNoDevuelveNada() throws IOException {
+        for (long offset = 1; offset < segunda; offset++) {
+            assertNull("offset " + offset, almacen.leer(offset));
+        }
+    }
+
+    @Test
+    public void unLargoInvalidoNoDevuelveNada() throws IOException {
+        escribirInt(segunda, 0);
+        assertNull(almacen.leer(segunda));
+        escribirInt(segunda, -SEGUNDA.length);
+        assertNull(almacen.leer(segunda));
+        escribirInt(segunda, 256 * 1024 + 1);
+        assertNull(almacen.leer(segunda));
+        // Más largo de lo que queda en el archivo, como un registro cortado
+        escribirInt(segunda, SEGUNDA.length + 1);
+        assertNull(almacen.leer(segunda));
+        assertArrayEquals(PRIMERA, almacen.leer(primera));
+    }
+
+    @Test
+    public void unRegistroCortadoNoDevuelveNada() throws IOException {
+        try (RandomAccessFile f = new RandomAccessFile(ruta, "rw")) {
+            f.setLength(ruta.length() - 1);
+        }
+        assertNull(almacen.leer(segunda));
+        assertArrayEquals(PRIMERA, almacen.leer(primera));
+    }
+
+    @Test
+    public void unCrcQueNoCoincideNoDevuelveNada() throws IOException {
+        // Un byte de los datos
+        try (RandomAccessFile f = new RandomAccessFile(ruta, "rw")) {
+            f.seek(primera + 8 + 4);
+            f.write(99);
+        }
+        assertNull(almacen.leer(primera));
+
+        // El crc guardado
+        escribirInt(segunda + 4, 12345);
+        assertNull(almacen.leer(segunda));
+    }
+
+    private void escribirInt(long posicion, int valor) throws IOException {
+        try (RandomAccessFile f = new RandomAccessFile(ruta, "rw")) {
+            f.seek(posicion);
+            f.writeInt(valor);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.exploradorvisualparanios;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+// Corrompe la bitácora y su índice como los dejaría un cierre abrupto (o el disco)
+// y revisa qué sobrevive al reabrir
+public class BitacoraDescubrimientosTest {
+
+    private static final String[] ETIQUETAS = {"perro", "gato", "pelota de playa"};
+    private static final byte[] JPEG = {(byte) 0xFF, (byte) 0xD8, 1, 2, 3, (byte) 0xFF, (byte) 0xD9};
+
+    @Rule
+    public final TemporaryFolder carpeta = new TemporaryFolder();
+
+    private File original;
+    // Offset y fin de cada registro, y el largo del archivo completo
+    private int[] offsets;
+    private int[] fines;
+    private long largo;
+
+    @Before
+    public void escribirOriginal() throws IOException {
+        original = carpeta.newFolder("original");
+        BitacoraDescubrimientos bitacora = new BitacoraDescubrimientos(original);
+        for (int i = 0; i < ETIQUETAS.length; i++) {
+            bitacora.registrar(ETIQUETAS[i], ETIQUETAS[i].toUpperCase(), 0.9f, Descubrimiento.ORIGEN_FOTO,
+                    i == 0 ? JPEG : null);
+        }
+        bitacora.cerrar();
+
+        offsets = leerIndice(original);
+        largo = new File(original, "bitacora.dat").length();
+        fines = new int[offsets.length];
+        for (int i = 0; i < offsets.length; i++) {
+            fines[i] = i + 1 < offsets.length ? offsets[i + 1] : (int) largo;
+        }
+        assertEquals(ETIQUETAS.length, offsets.length);
+        assertEquals(BitacoraDescubrimientos.TAM_ENCABEZADO, offsets[0]);
+    }
+
+    @Test
+    public void alReabrirEstanLasEntradasYSusMiniaturas() throws IOException {
+        BitacoraDescubrimientos bitacora = abrir(original);
+        List<Descubrimiento> entradas = bitacora.leer(0, 10);
+        assertEtiquetas(entradas, ETIQUETAS.length);
+        assertEquals("PERRO", entradas.get(0).ingles);
+        assertEquals(Descubrimiento.ORIGEN_FOTO, entradas.get(0).origen);
+        assertArrayEquals(JPEG, bitacora.leerMiniatura(entradas.get(0).miniatura));
+        assertEquals(Descubrimiento.SIN_MINIATURA, entradas.get(1).miniatura);
+        assertNull(bitacora.leerMiniatura(entradas.get(1).miniatura));
+        bitacora.cerrar();
+    }
+
+    // Un corte de luz puede dejar la cola del archivo llena de ceros
+    @Test
+    public void unaColaDeCerosSeDescartaYSeSigueEscribiendo() throws IOException {
+        agregar(new File(original, "bitacora.dat"), new byte[64]);
+
+        BitacoraDescubrimientos bitacora = abrir(original);
+        assertEquals(ETIQUETAS.length, bitacora.getCantidad());
+        assertEquals(largo, new File(original, "bitacora.dat").length());
+        assertArrayEquals(offsets, leerIndice(original));
+
+        bitacora.registrar("nube", "cloud", 0.8f, Descubrimiento.ORIGEN_VIVO, null);
+        bitacora.sincronizar();
+        assertEquals("nube", bitacora.leer(ETIQUETAS.length, 1).get(0).etiqueta);
+        bitacora.cerrar();
+    }
+
+    // Sin importar dónde se corte, quedan justo los registros completos y el índice los nombra
+    @Test
+    public void unCorteEnCualquierBytePierdeSoloElRegistroIncompleto() throws IOException {
+        for (int corte = BitacoraDescubrimientos.TAM_ENCABEZADO; corte < largo; corte++) {
+            File copia = copiar("corte" + corte);
+            truncar(new File(copia, "bitacora.dat"), corte);
+
+            int completos = 0;
+            while (completos < fines.length && fines[completos] <= corte) completos++;
+            BitacoraDescubrimientos bitacora = abrir(copia);
+            assertEquals("corte en " + corte, completos, bitacora.getCantidad());
+            assertEtiquetas(bitacora.leer(0, 10), completos);
+            assertArrayEquals(Arrays.copyOf(offsets, completos), leerIndice(copia));
+            long esperado = completos == 0 ? BitacoraDescubrimientos.TAM_ENCABEZADO : fines[completos - 1];
+            assertEquals("corte en " + corte, esperado, new File(copia, "bitacora.dat").length());
+            bitacora.cerrar();
+        }
+    }
+
+    // El índice no se fuerza a disco: se reconstruye desde la bitácora
+    @Test
+    public void unIndiceCortadoSeReconstruye() throws IOException {
+        for (int corte = 0; corte < offsets.length * 4; corte++) {
+            File copia = copiar("indice" + corte);
+            truncar(new File(copia, "bitacora.idx"), corte);
+
+            BitacoraDescubrimientos bitacora = abrir(copia);
+            assertEquals("corte en " + corte, ETIQUETAS.length, bitacora.getCantidad());
+            assertEtiquetas(bitacora.leer(0, 10), ETIQUETAS.length);
+            assertArrayEquals(offsets, leerIndice(copia));
+            bitacora.cerrar();
+        }
+    }
+
+    @Test
+    public void unIndiceQueNoCreceSeDescartaDesdeAhi() throws IOException {
+        int[][] indices = {
+                {offsets[0], offsets[1], offsets[1]},
+                {offsets[0], offsets[1], offsets[0]},
+                {offsets[0], offsets[1], 0},
+                {offsets[1], offsets[2]},
+                // Crece, pero el último no apunta al comienzo de un registro
+                {offsets[0], offsets[1], offsets[1] + 3},
+        };
+        for (int n = 0; n < indices.length; n++) {
+            File copia = copiar("indice" + n);
+            escribirIndice(copia, indices[n]);
+
+            BitacoraDescubrimientos bitacora = abrir(copia);
+            String caso = Arrays.toString(indices[n]);
+            assertEquals(caso, ETIQUETAS.length, bitacora.getCantidad());
+            assertEtiquetas(bitacora.leer(0, 10), ETIQUETAS.length);
+            assertArrayEquals(caso, offsets, leerIndice(copia));
+            bitacora.cerrar();
+        }
+    }
+
+    @Test
+    public void unCrcMaloEnLaColaLaCortaAhi() throws IOException {
+        File copia = copiar("ultimo");
+        alterar(new File(copia, "bitacora.dat"), offsets[2] + 10);
+        BitacoraDescubrimientos bitacora = abrir(copia);
+        assertEquals(2, bitacora.getCantidad());
+        assertEtiquetas(bitacora.leer(0, 10), 2);
+        assertArrayEquals(Arrays.copyOf(offsets, 2), leerIndice(copia));
+        assertEquals(offsets[2], new File(copia, "bitacora.dat").length());
+        bitacora.cerrar();
+
+        // Sin índice se recorre desde el principio y se corta en el primero malo
+        copia = copiar("medio");
+        alterar(new File(copia, "bitacora.dat"), offsets[1] + 10);
+        truncar(new File(copia, "bitacora.idx"), 0);
+        bitacora = abrir(copia);
+        assertEquals(1, bitacora.getCantidad());
+        assertArrayEquals(Arrays.copyOf(offsets, 1), leerIndice(copia));
+        assertEquals(offsets[1], new File(copia, "bitacora.dat").length());
+        bitacora.cerrar();
+    }
+
+    // Al abrir solo se revisa la cola; un registro indexado que se dañó después falla al leerlo
+    @Test
+    public void unCrcMaloEnUnRegistroIndexadoFallaAlLeer() throws IOException {
+        alterar(new File(original, "bitacora.dat"), offsets[1] + 10);
+        BitacoraDescubrimientos bitacora = abrir(original);
+        assertEquals(ETIQUETAS.length, bitacora.getCantidad());
+        assertEtiquetas(bitacora.leer(0, 1), 1);
+        assertEquals(ETIQUETAS[2], bitacora.leer(2, 1).get(0).etiqueta);
+        try {
+            bitacora.leer(0, 10);
+            fail("Leyó un registro con crc malo");
+        } catch (IOException esperada) {
+            // La página se descarta entera
+        }
+        bitacora.cerrar();
+    }
+
+    private static BitacoraDescubrimientos abrir(File directorio) {
+        BitacoraDescubrimientos bitacora = new BitacoraDescubrimientos(directorio);
+        // Espera a que el hilo escritor termine de abrir y recuperar
+        bitacora.sincronizar();
+        return bitacora;
+    }
+
+    private static void assertEtiquetas(List<Descubrimiento> entradas, int cantidad) {
+        assertEquals(cantidad, entradas.size());
+        for (int i = 0; i < cantidad; i++) assertEquals(ETIQUETAS[i], entradas.get(i).etiqueta);
+    }
+
+    private File copiar(String nombre) throws IOException {
+        File copia = carpeta.newFolder(nombre);
+        for (String archivo : new String[]{"bitacora.dat", "bitacora.idx", "miniaturas.dat"}) {
+            Files.copy(new File(original, archivo).toPath(), new File(copia, archivo).toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+        return copia;
+    }
+
+    private static int[] leerIndice(File directorio) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(new File(directorio, "bitacora.idx").toPath()));
+        int[] indice = new int[bytes.remaining() / 4];
+        bytes.asIntBuffer().get(indice);
+        return indice;
+    }
+
+    private static void escribirIndice(File directorio, int[] indice) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(indice.length * 4);
+        bytes.asIntBuffer().put(indice);
+        Files.write(new File(directorio, "bitacora.idx").toPath(), bytes.array());
+    }
+
+    private static void truncar(File archivo, long largo) throws IOException {
+        try (RandomAccessFile f = new RandomAccessFile(archivo, "rw")) {
+            f.setLength(largo);
+        }
+    }
+
+    private static void agregar(File archivo, byte[] bytes) throws IOException {
+        try (RandomAccessFile f = new RandomAccessFile(archivo, "rw")) {
+            f.seek(f.length());
+            f.write(bytes);
+        }
+    }
+
+    private static void alterar(File archivo, long posicion) throws IOException {
+        try (RandomAccessFile f = new RandomAccessFile(archivo, "rw")) {
+            f.seek(posicion);
+            int b = f.read();
+            f.seek(posicion);
+            f.write(b ^ 0x5A);
+        }
+    }
+}
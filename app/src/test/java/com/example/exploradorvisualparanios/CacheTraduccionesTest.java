@@ -0,0 +1,67 @@
+package com.example.exploradorvisualparanios;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CacheTraduccionesTest {
+
+    private static class AlmacenEnMemoria implements CacheTraducciones.Almacen {
+        final Map<String, String> valores = new HashMap<>();
+
+        @Override
+        public String leer(String clave) {
+            return valores.get(clave);
+        }
+
+        @Override
+        public void guardar(String clave, String valor) {
+            valores.put(clave, valor);
+        }
+    }
+
+    @Test
+    public void unaTraduccionFallidaNoSePersisteYSeVuelveAPedir() {
+        AlmacenEnMemoria almacen = new AlmacenEnMemoria();
+        CacheTraducciones cache = new CacheTraducciones(4, Collections.<String, String>emptyMap(), almacen);
+
+        assertNull(cache.buscar("Sextant"));
+        cache.guardar("Sextant", null);
+        cache.guardar("Sextant", "");
+
+        assertTrue(almacen.valores.isEmpty());
+        assertNull(cache.buscar("Sextant"));
+        assertEquals("memoria=0 diccionario=0 almacén=0 fallos=2", cache.resumen());
+    }
+
+    @Test
+    public void unaTraduccionBuenaSeGuardaFueraDelDiccionario() {
+        AlmacenEnMemoria almacen = new AlmacenEnMemoria();
+        Map<String, String> diccionario = new HashMap<>();
+        diccionario.put("dog", "Perro");
+        CacheTraducciones cache = new CacheTraducciones(4, diccionario, almacen);
+
+        cache.guardar(" Sextant ", "Sextante");
+        cache.guardar("Dog", "Perro");
+
+        assertEquals(Collections.singletonMap("sextant", "Sextante"), almacen.valores);
+        assertEquals("Sextante", cache.buscar("SEXTANT"));
+    }
+
+    @Test
+    public void elAlmacenSobreviveALaMemoria() {
+        AlmacenEnMemoria almacen = new AlmacenEnMemoria();
+        new CacheTraducciones(1, Collections.<String, String>emptyMap(), almacen).guardar("Sextant", "Sextante");
+
+        CacheTraducciones nueva = new CacheTraducciones(1, Collections.<String, String>emptyMap(), almacen);
+        assertEquals("Sextante", nueva.buscar("Sextant"));
+        assertEquals("Sextante", nueva.buscar("Sextant"));
+        assertEquals("memoria=1 diccionario=0 almacén=1 fallos=0", nueva.resumen());
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.exploradorvisualparanios;
+
+import org.junit.Test;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DatosCuriososTest {
+
+    @Test
+    public void buscaSinDistinguirMayusculasYRotaLosDatos() throws Exception {
+        DatosCuriosos datos = IndiceDatosCuriosos.cargar();
+        int etiqueta = datos.buscarEtiqueta("Dog");
+        String primero = datos.getDato(etiqueta, 0);
+        String segundo = datos.getDato(etiqueta, 1);
+
+        assertEquals(etiqueta, datos.buscarEtiqueta("DOG"));
+        assertEquals(etiqueta, datos.buscarEtiqueta("dog"));
+        assertEquals(primero, datos.buscar("Dog"));
+        assertEquals(segundo, datos.buscar("dog"));
+        assertTrue(datos.buscarEtiqueta("Teddy bear") >= 0);
+        assertNull(datos.buscar("Teddy"));
+    }
+
+    // El índice que arma Gradle tiene que decir lo mismo que la fuente, en el mismo orden
+    @Test
+    public void elIndiceGeneradoCoincideConLaFuente() throws Exception {
+        Map<String, List<String>> porEtiqueta = new LinkedHashMap<>();
+        for (String linea : Files.readAllLines(IndiceDatosCuriosos.FUENTE.toPath(), StandardCharsets.UTF_8)) {
+            if (linea.trim().isEmpty() || linea.startsWith("#")) continue;
+            String[] partes = linea.split("\t", 2);
+            String clave = partes[0].trim().toLowerCase(Locale.ROOT);
+            if (!porEtiqueta.containsKey(clave)) porEtiqueta.put(clave, new ArrayList<>());
+            porEtiqueta.get(clave).add(partes[1].trim());
+        }
+
+        DatosCuriosos datos = IndiceDatosCuriosos.cargar();
+        assertEquals(porEtiqueta.size(), datos.getCantidadEtiquetas());
+        for (Map.Entry<String, List<String>> entrada : porEtiqueta.entrySet()) {
+            int etiqueta = datos.buscarEtiqueta(entrada.getKey());
+            assertTrue(entrada.getKey(), etiqueta >= 0);
+            List<String> esperados = entrada.getValue();
+            assertEquals(entrada.getKey(), esperados.size(), datos.getCantidadDatos(etiqueta));
+            for (int n = 0; n < esperados.size(); n++) {
+                assertEquals(esperados.get(n), datos.getDato(etiqueta, n));
+            }
+            // Todas rotan: ninguna etiqueta repite siempre el mismo dato
+            assertTrue(entrada.getKey(), esperados.size() > 1);
+        }
+    }
+
+    // Toda etiqueta que la app sabe traducir tiene al menos un dato que contar
+    @Test
+    public void cadaEtiquetaDelDiccionarioTieneDatos() throws Exception {
+        Map<String, String> diccionario;
+        try (InputStream in = new FileInputStream("src/main/assets/etiquetas_es.tsv")) {
+            diccionario = CacheTraducciones.cargarDiccionario(in);
+        }
+
+        DatosCuriosos datos = IndiceDatosCuriosos.cargar();
+        List<String> sinDatos = new ArrayList<>();
+        for (String etiqueta : diccionario.keySet()) {
+            int indice = datos.buscarEtiqueta(etiqueta);
+            if (indice < 0 || datos.getCantidadDatos(indice) == 0) sinDatos.add(etiqueta);
+        }
+        assertTrue("Sin datos curiosos: " + sinDatos, sinDatos.isEmpty());
+    }
+
+    @Test
+    public void indiceVacioNoEncuentraNada() {
+        assertNull(DatosCuriosos.vacio().buscar("Dog"));
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.exploradorvisualparanios;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Etiquetador falso para reproducir grabaciones en la JVM: cada escena del guion
+// dice qué etiquetas "ve" ML Kit desde un instante dado. Empieza y responde en el
+// acto, por el ejecutor pedido; con un ejecutor sincrónico la reproducción es
+// determinista.
+final class EtiquetadorGuionado implements Etiquetador {
+
+    private static final class Escena implements Etiquetas {
+        final long desdeMs;
+        final int[] indices;
+        final String[] textos;
+        final float[] confianzas;
+
+        Escena(long desdeMs, int[] indices, String[] textos, float[] confianzas) {
+            this.desdeMs = desdeMs;
+            this.indices = indices;
+            this.textos = textos;
+            this.confianzas = confianzas;
+        }
+
+        @Override
+        public int cantidad() {
+            return indices.length;
+        }
+
+        @Override
+        public int indice(int i) {
+            return indices[i];
+        }
+
+        @Override
+        public String texto(int i) {
+            return textos[i];
+        }
+
+        @Override
+        public float confianza(int i) {
+            return confianzas[i];
+        }
+    }
+
+    private static final Escena NADA = new Escena(0, new int[0], new String[0], new float[0]);
+
+    private final List<Escena> guion = new ArrayList<>();
+    private final AtomicInteger etiquetados = new AtomicInteger();
+
+    // Las escenas se agregan en orden de instante
+    EtiquetadorGuionado escena(long desdeMs, int[] indices, String[] textos, float[] confianzas) {
+        guion.add(new Escena(desdeMs, indices, textos, confianzas));
+        return this;
+    }
+
+    int getEtiquetados() {
+        return etiquetados.get();
+    }
+
+    @Override
+    public void etiquetar(FrameYuv frame, Executor ejecutor, Callback callback) {
+        etiquetados.incrementAndGet();
+        Escena escena = buscar(frame.getInstanteMs());
+        callback.alEmpezar();
+        ejecutor.execute(() -> callback.alEtiquetar(escena));
+    }
+
+    private Escena buscar(long instanteMs) {
+        Escena actual = NADA;
+        for (Escena escena : guion) {
+            if (escena.desdeMs > instanteMs) break;
+            actual = escena;
+        }
+        return actual;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.exploradorvisualparanios;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GobernadorAnalisisTest {
+
+    private static class SenalesFijas implements SenalesEnergia {
+        int termico = 0;
+        int bateria = 80;
+        boolean cargando = false;
+        boolean ahorro = false;
+
+        @Override
+        public int getEstadoTermico() {
+            return termico;
+        }
+
+        @Override
+        public int getNivelBateria() {
+            return bateria;
+        }
+
+        @Override
+        public boolean estaCargando() {
+            return cargando;
+        }
+
+        @Override
+        public boolean enAhorroDeEnergia() {
+            return ahorro;
+        }
+    }
+
+    @Test
+    public void sinSenalesNoLimitaNada() {
+        GobernadorAnalisis gobernador = new GobernadorAnalisis(new SenalesFijas());
+        assertNull(gobernador.evaluar(1000));
+        GobernadorAnalisis.Decision actual = gobernador.getActual();
+        assertEquals(GobernadorAnalisis.NORMAL, actual.severidad);
+        assertEquals(0, actual.intervaloMinimoMs);
+        assertEquals(PoliticaResolucion.NIVELES.length - 1, actual.nivelMaximoResolucion);
+        assertTrue(gobernador.getHistorial().isEmpty());
+    }
+
+    @Test
+    public void subeEnElActoYBajaDespuesDeLaEspera() {
+        SenalesFijas senales = new SenalesFijas();
+        GobernadorAnalisis gobernador = new GobernadorAnalisis(senales);
+
+        senales.termico = 3; // THERMAL_STATUS_SEVERE
+        GobernadorAnalisis.Decision decision = gobernador.evaluar(1000);
+        assertNotNull(decision);
+        assertEquals(GobernadorAnalisis.FUERTE, decision.severidad);
+        assertEquals(1, decision.nivelMaximoResolucion);
+        assertTrue(decision.motivo.contains("térmico 3"));
+
+        senales.termico = 0;
+        assertNull(gobernador.evaluar(2000));
+        assertNull(gobernador.evaluar(2000 + GobernadorAnalisis.ESPERA_PARA_BAJAR_MS - 1));
+        decision = gobernador.evaluar(2000 + GobernadorAnalisis.ESPERA_PARA_BAJAR_MS);
+        assertNotNull(decision);
+        assertEquals(GobernadorAnalisis.NORMAL, decision.severidad);
+        assertEquals(2, gobernador.getHistorial().size());
+    }
+
+    @Test
+    public void unPicoDuranteLaEsperaLaReinicia() {
+        SenalesFijas senales = new SenalesFijas();
+        GobernadorAnalisis gobernador = new GobernadorAnalisis(senales);
+        senales.termico = 2;
+        assertNotNull(gobernador.evaluar(0));
+
+        senales.termico = 0;
+        assertNull(gobernador.evaluar(1000));
+        senales.termico = 2;
+        assertNull(gobernador.evaluar(20000));
+        senales.termico = 0;
+        assertNull(gobernador.evaluar(35000));
+        assertEquals(GobernadorAnalisis.MODERADO, gobernador.getActual().severidad);
+        assertNotNull(gobernador.evaluar(35000 + GobernadorAnalisis.ESPERA_PARA_BAJAR_MS));
+    }
+
+    @Test
+    public void bateriaBajaSoloCuentaSinCargar() {
+        SenalesFijas senales = new SenalesFijas();
+        GobernadorAnalisis gobernador = new GobernadorAnalisis(senales);
+        senales.bateria = 10;
+        senales.cargando = true;
+        assertNull(gobernador.evaluar(0));
+
+        senales.cargando = false;
+        GobernadorAnalisis.Decision decision = gobernador.evaluar(1000);
+        assertEquals(GobernadorAnalisis.FUERTE, decision.severidad);
+        assertTrue(decision.motivo.contains("batería 10%"));
+    }
+
+    @Test
+    public void laSeveridadEsLaMayorYElMotivoNombraTodas() {
+        SenalesFijas senales = new SenalesFijas();
+        senales.termico = 4; // THERMAL_STATUS_CRITICAL
+        senales.bateria = 25;
+        senales.ahorro = true;
+        GobernadorAnalisis.Decision decision = new GobernadorAnalisis(senales).evaluar(0);
+        assertEquals(GobernadorAnalisis.CRITICO, decision.severidad);
+        assertEquals(0, decision.nivelMaximoResolucion);
+        assertTrue(decision.motivo.contains("térmico 4"));
+        assertTrue(decision.motivo.contains("batería 25%"));
+        assertTrue(decision.motivo.contains("ahorro de energía"));
+    }
+
+    // Cada grado de severidad tiene que bajar el tope de resolución; si cambian los
+    // niveles de la política y la tabla no alcanza, esto falla
+    @Test
+    public void cadaSeveridadTopaLaResolucionMasAbajoQueLaAnterior() {
+        int[] termicoPorSeveridad = {0, 2, 3, 4};
+        int anterior = Integer.MAX_VALUE;
+        for (int severidad = GobernadorAnalisis.NORMAL; severidad <= GobernadorAnalisis.CRITICO; severidad++) {
+            SenalesFijas senales = new SenalesFijas();
+            senales.termico = termicoPorSeveridad[severidad];
+            GobernadorAnalisis gobernador = new GobernadorAnalisis(senales);
+            gobernador.evaluar(0);
+            GobernadorAnalisis.Decision decision = gobernador.getActual();
+            assertEquals(severidad, decision.severidad);
+            assertTrue("severidad " + severidad, decision.nivelMaximoResolucion < anterior);
+            assertTrue(decision.nivelMaximoResolucion >= 0);
+            anterior = decision.nivelMaximoResolucion;
+        }
+        assertEquals(0, anterior);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.exploradorvisualparanios;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+// El datos_curiosos.bin que genera la tarea compilarDatosCuriosos, el mismo que
+// va en el APK. Gradle pasa la ruta en la propiedad datosCuriosos.bin.
+final class IndiceDatosCuriosos {
+
+    static final File FUENTE = new File("src/main/datos/datos_curiosos.tsv");
+    private static final File GENERADO = new File("build/generated/datosCuriosos/datos_curiosos.bin");
+
+    private IndiceDatosCuriosos() {
+    }
+
+    static DatosCuriosos cargar() throws IOException {
+        File archivo = new File(System.getProperty("datosCuriosos.bin", GENERADO.getPath()));
+        if (!archivo.isFile()) {
+            throw new IOException("Falta " + archivo + ": correr ./gradlew compilarDatosCuriosos");
+        }
+        return new DatosCuriosos(ByteBuffer.wrap(Files.readAllBytes(archivo.toPath())));
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.exploradorvisualparanios;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+// Arnés mínimo al estilo JMH para correr en la JVM de cualquier máquina:
+// iteraciones de calentamiento, iteraciones medidas, operaciones por segundo
+// y bytes reservados por operación (ThreadMXBean de HotSpot, si está disponible).
+// Las iteraciones se escalan con -Pbenchmark.escala=N (por defecto 1, corto para CI).
+final class Microbenchmark {
+
+    interface Operacion {
+        // Devuelve algo derivado del trabajo para que el JIT no lo elimine
+        Object ejecutar(int i);
+    }
+
+    static final class Resultado {
+        final String nombre;
+        final double opsPorSegundo;
+        final double nsPorOp;
+        final double bytesPorOp;
+
+        Resultado(String nombre, double opsPorSegundo, double nsPorOp, double bytesPorOp) {
+            this.nombre = nombre;
+            this.opsPorSegundo = opsPorSegundo;
+            this.nsPorOp = nsPorOp;
+            this.bytesPorOp = bytesPorOp;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-32s %14.0f ops/s %10.1f ns/op %10s B/op",
+                    nombre, opsPorSegundo, nsPorOp,
+                    bytesPorOp < 0 ? "n/d" : String.format(Locale.ROOT, "%.1f", bytesPorOp));
+        }
+    }
+
+    private static final int ESCALA = Integer.getInteger("benchmark.escala", 1);
+    private static final int ITERACIONES_CALENTAMIENTO = 3;
+    private static final int ITERACIONES_MEDIDAS = 5;
+
+    private static final com.sun.management.ThreadMXBean HILOS = hilos();
+
+    // Sumidero de resultados: evita que el trabajo medido se considere código muerto
+    private static volatile int sumidero;
+
+    private Microbenchmark() {
+    }
+
+    static Resultado medir(String nombre, int opsPorIteracion, Operacion operacion) {
+        int ops = opsPorIteracion * ESCALA;
+        for (int it = 0; it < ITERACIONES_CALENTAMIENTO; it++) {
+            correr(operacion, ops);
+        }
+
+        long mejorNs = Long.MAX_VALUE;
+        long bytesTotales = 0;
+        for (int it = 0; it < ITERACIONES_MEDIDAS; it++) {
+            long bytesAntes = bytesReservados();
+            long inicio = System.nanoTime();
+            correr(operacion, ops);
+            long duracion = System.nanoTime() - inicio;
+            bytesTotales += bytesReservados() - bytesAntes;
+            mejorNs = Math.min(mejorNs, duracion);
+        }
+
+        double nsPorOp = (double) mejorNs / ops;
+        double bytesPorOp = HILOS == null ? -1 : (double) bytesTotales / ((long) ops * ITERACIONES_MEDIDAS);
+        Resultado resultado = new Resultado(nombre, 1e9 / nsPorOp, nsPorOp, bytesPorOp);
+        System.out.println(resultado);
+        return resultado;
+    }
+
+    private static void correr(Operacion operacion, int ops) {
+        int acumulado = 0;
+        for (int i = 0; i < ops; i++) {
+            Object r = operacion.ejecutar(i);
+            if (r != null) acumulado += System.identityHashCode(r) & 1;
+        }
+        sumidero += acumulado;
+    }
+
+    private static long bytesReservados() {
+        return HILOS == null ? 0 : HILOS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static com.sun.management.ThreadMXBean hilos() {
+        try {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean hilos = (com.sun.management.ThreadMXBean) bean;
+                if (hilos.isThreadAllocatedMemorySupported()) {
+                    hilos.setThreadAllocatedMemoryEnabled(true);
+                    return hilos;
+                }
+            }
+        } catch (UnsupportedOperationException | LinkageError ignorada) {
+            // JVM sin contadores de memoria por hilo: solo se mide el tiempo
+        }
+        return null;
+    }
+}
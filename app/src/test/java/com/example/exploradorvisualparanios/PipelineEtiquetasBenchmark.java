@@ -0,0 +1,297 @@
+package com.example.exploradorvisualparanios;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// Línea base de rendimiento del post-proceso de etiquetas en vivo, sin Android:
+// filtrado y deduplicación, dato curioso, armado del texto, cache de traducciones,
+// el frame completo y PipelineEnVivo con un etiquetado instantáneo (el costo
+// propio de la tubería por frame de cámara). Las entradas imitan lo que entrega ML Kit (índice, texto y
+// confianza) con una semilla fija para que las corridas sean comparables.
+//   ./gradlew :app:testDebugUnitTest --tests '*PipelineEtiquetasBenchmark' -Pbenchmark.escala=20
+public class PipelineEtiquetasBenchmark {
+
+    private static final int ETIQUETAS_MODELO = 450;
+    private static final int FRAMES = 1024;
+    private static final int MAX_POR_FRAME = 10;
+    private static final int OPS = 20000;
+
+    // Un frame en vivo ya reutiliza todo su estado: no debería reservar memoria
+    private static final double MAX_BYTES_POR_FRAME = 64;
+
+    private static String[] nombres;
+    private static int[][] indicesPorFrame;
+    private static float[][] confianzasPorFrame;
+    private static Map<String, String> diccionario;
+    private static DatosCuriosos datosCuriosos;
+
+    @BeforeClass
+    public static void generarFrames() throws Exception {
+        datosCuriosos = IndiceDatosCuriosos.cargar();
+        Random random = new Random(42);
+        String[] conDato = {"Dog", "Cat", "Bird", "Fish", "Car", "Bicycle", "Sun", "Moon", "Cloud", "Book"};
+        nombres = new String[ETIQUETAS_MODELO];
+        diccionario = new HashMap<>();
+        for (int i = 0; i < ETIQUETAS_MODELO; i++) {
+            nombres[i] = i < conDato.length ? conDato[i] : "Label " + i;
+            diccionario.put(CacheTraducciones.normalizar(nombres[i]), "Etiqueta " + i);
+        }
+
+        // Escenas de unos segundos: casi siempre las mismas etiquetas, con algo de ruido
+        indicesPorFrame = new int[FRAMES][];
+        confianzasPorFrame = new float[FRAMES][];
+        int[] escena = new int[6];
+        for (int f = 0; f < FRAMES; f++) {
+            if (f % 60 == 0) {
+                for (int i = 0; i < escena.length; i++) escena[i] = random.nextInt(ETIQUETAS_MODELO);
+            }
+            int cantidad = 2 + random.nextInt(MAX_POR_FRAME - 1);
+            indicesPorFrame[f] = new int[cantidad];
+            confianzasPorFrame[f] = new float[cantidad];
+            for (int i = 0; i < cantidad; i++) {
+                boolean ruido = i >= escena.length || random.nextInt(5) == 0;
+                indicesPorFrame[f][i] = ruido ? random.nextInt(ETIQUETAS_MODELO) : escena[i];
+                confianzasPorFrame[f][i] = 0.5f + random.nextFloat() * 0.5f;
+            }
+        }
+    }
+
+    @Test
+    public void filtradoYDeduplicacion() {
+        ProcesadorEtiquetas procesador = nuevoProcesador(nuevoRegistro());
+        Microbenchmark.medir("filtrado+deduplicacion/frame", OPS, i -> {
+            observarFrame(procesador, i);
+            return procesador.cerrarFrame();
+        });
+    }
+
+    @Test
+    public void datoCurioso() {
+        Microbenchmark.medir("dato curioso (indice)", OPS,
+                i -> datosCuriosos.buscarEtiqueta(nombres[i % ETIQUETAS_MODELO]));
+
+        RegistroEtiquetas registro = nuevoRegistro();
+        for (int i = 0; i < ETIQUETAS_MODELO; i++) registro.registrar(i, nombres[i]);
+        Microbenchmark.medir("dato curioso (registro)", OPS, i -> registro.getDatoCurioso(i % ETIQUETAS_MODELO));
+    }
+
+    @Test
+    public void armadoDeResultados() {
+        RenderizadorResultados renderizador = new RenderizadorResultados(6);
+        renderizador.reiniciar("Analizando en vivo...");
+        Microbenchmark.medir("armado de resultados", OPS, i -> {
+            renderizador.agregar(nombres[i % ETIQUETAS_MODELO], confianzasPorFrame[i % FRAMES][0]);
+            return renderizador.construir();
+        });
+    }
+
+    @Test
+    public void cacheDeTraducciones() {
+        CacheTraducciones cache = new CacheTraducciones(256, diccionario, new AlmacenVacio());
+        Microbenchmark.medir("cache traducciones (LRU)", OPS, i -> cache.buscar(nombres[i % 64]));
+        Microbenchmark.medir("cache traducciones (dicc.)", OPS, i -> cache.buscar(nombres[i % ETIQUETAS_MODELO]));
+    }
+
+    @Test
+    public void frameCompleto() {
+        RegistroEtiquetas registro = nuevoRegistro();
+        ProcesadorEtiquetas procesador = nuevoProcesador(registro);
+        RenderizadorResultados renderizador = new RenderizadorResultados(6);
+        renderizador.reiniciar("Analizando en vivo...");
+        Traductor traductor = new TraductorSincrono(new CacheTraducciones(256, diccionario, new AlmacenVacio()));
+        CharSequence[] publicado = new CharSequence[1];
+        RegistroEtiquetas.AlTraducir alTraducir = (indices, cantidad) -> {
+            publicado[0] = procesador.armarResultados(indices, cantidad, renderizador);
+            registro.getDatoCurioso(indices[0]);
+        };
+
+        Microbenchmark.Resultado resultado = Microbenchmark.medir("frame completo", OPS, i -> {
+            observarFrame(procesador, i);
+            int cantidad = procesador.cerrarFrame();
+            if (cantidad > 0) registro.asegurarTraducciones(procesador.getNuevas(), cantidad, traductor, alTraducir);
+            return publicado[0];
+        });
+
+        assertTrue("El frame en vivo reserva " + resultado.bytesPorOp + " B/op",
+                resultado.bytesPorOp < MAX_BYTES_POR_FRAME);
+    }
+
+    // Escenas de 3 s a 30 fps: el detector omite casi todos los frames; con umbral 0
+    // se etiquetan todos y se mide el camino completo hasta el hilo de resultados
+    @Test
+    public void pipelineEnVivo() {
+        FrameGrabado[] escenas = new FrameGrabado[8];
+        for (int e = 0; e < escenas.length; e++) {
+            byte[] nv21 = new byte[FrameGrabado.tamanoNv21(160, 120)];
+            Arrays.fill(nv21, (byte) (30 + 25 * e));
+            escenas[e] = new FrameGrabado(0, 160, 120, 0, nv21);
+        }
+        FrameReutilizado frame = new FrameReutilizado();
+
+        Microbenchmark.Resultado omitidos = Microbenchmark.medir("pipeline en vivo/frame (quieto)", OPS,
+                medirPipeline(nuevoPipeline(6), frame, escenas));
+        Microbenchmark.medir("pipeline en vivo/frame (etiq.)", OPS, medirPipeline(nuevoPipeline(0), frame, escenas));
+
+        // Un frame que el detector omite no debería reservar memoria
+        assertTrue("El frame omitido reserva " + omitidos.bytesPorOp + " B/op",
+                omitidos.bytesPorOp < MAX_BYTES_POR_FRAME);
+    }
+
+    @Test
+    public void procesadorFiltraYEntregaLasNuevasPorConfianza() {
+        RegistroEtiquetas registro = nuevoRegistro();
+        ProcesadorEtiquetas procesador = new ProcesadorEtiquetas(registro,
+                new EstabilizadorEtiquetas(1f, 0.6f, 0.2f, 4000, 64), 0.7f, 5);
+        procesador.iniciarFrame(0);
+        procesador.observar(1, "Cat", 0.8f);
+        procesador.observar(2, "Dog", 0.9f);
+        procesador.observar(3, "Car", 0.65f);
+
+        assertEquals(2, procesador.cerrarFrame());
+        assertEquals(2, procesador.getNuevas()[0]);
+        assertEquals(1, procesador.getNuevas()[1]);
+        assertEquals(null, registro.getIngles(3));
+    }
+
+    private static RegistroEtiquetas nuevoRegistro() {
+        return new RegistroEtiquetas(datosCuriosos);
+    }
+
+    // Mismos parámetros que MainActivity
+    private static ProcesadorEtiquetas nuevoProcesador(RegistroEtiquetas registro) {
+        return new ProcesadorEtiquetas(registro, new EstabilizadorEtiquetas(0.5f, 0.6f, 0.2f, 4000, 64),
+                ContenedorMotores.CONFIDENCE_THRESHOLD, 5);
+    }
+
+    private static PipelineEnVivo nuevoPipeline(int umbralCambioEscena) {
+        EtiquetadorGuionado etiquetador = new EtiquetadorGuionado();
+        for (int e = 0; e < 8; e++) {
+            etiquetador.escena(e * 3000L, new int[]{0, 10 + e}, new String[]{nombres[0], nombres[10 + e]},
+                    new float[]{0.95f, 0.9f});
+        }
+        RegistroEtiquetas registro = nuevoRegistro();
+        Traductor traductor = new TraductorSincrono(new CacheTraducciones(256, diccionario, new AlmacenVacio()));
+        return new PipelineEnVivo(etiquetador, new DetectorCambioEscena(umbralCambioEscena, 2000),
+                nuevoProcesador(registro), registro, traductor, new PoliticaResolucion(5f, 2),
+                new Instrumentacion(), Runnable::run, new PipelineEnVivo.Oyente() {
+                    @Override
+                    public void alEtiquetarFrame() {
+                    }
+
+                    @Override
+                    public void alPublicar(int[] indices, int cantidad, MiniaturaGris miniatura) {
+                    }
+
+                    @Override
+                    public void alCambiarNivel() {
+                    }
+
+                    @Override
+                    public void alFallar(Exception e) {
+                        throw new AssertionError(e);
+                    }
+                });
+    }
+
+    // 24 s de video en bucle; el reloj de los frames sigue avanzando entre vueltas
+    private static Microbenchmark.Operacion medirPipeline(PipelineEnVivo pipeline, FrameReutilizado frame,
+                                                          FrameGrabado[] escenas) {
+        long[] reloj = {0};
+        return i -> {
+            reloj[0] += 33;
+            frame.instanteMs = reloj[0];
+            frame.escena = escenas[(int) (reloj[0] / 3000 % escenas.length)];
+            pipeline.alRecibir(frame);
+            return frame;
+        };
+    }
+
+    private static void observarFrame(ProcesadorEtiquetas procesador, int op) {
+        int f = op % FRAMES;
+        int[] indices = indicesPorFrame[f];
+        float[] confianzas = confianzasPorFrame[f];
+        procesador.iniciarFrame(op * 100L);
+        for (int i = 0; i < indices.length; i++) {
+            procesador.observar(indices[i], nombres[indices[i]], confianzas[i]);
+        }
+    }
+
+    // Un solo frame que cambia de instante y de escena, para no medir reservas propias
+    private static final class FrameReutilizado implements FrameYuv {
+        long instanteMs;
+        FrameGrabado escena;
+
+        @Override
+        public long getInstanteMs() {
+            return instanteMs;
+        }
+
+        @Override
+        public int getAncho() {
+            return escena.getAncho();
+        }
+
+        @Override
+        public int getAlto() {
+            return escena.getAlto();
+        }
+
+        @Override
+        public int getRotacion() {
+            return 0;
+        }
+
+        @Override
+        public ByteBuffer getPlano(int plano) {
+            return escena.getPlano(plano);
+        }
+
+        @Override
+        public int getRowStride(int plano) {
+            return escena.getRowStride(plano);
+        }
+
+        @Override
+        public int getPixelStride(int plano) {
+            return escena.getPixelStride(plano);
+        }
+
+        @Override
+        public void cerrar() {
+        }
+    }
+
+    private static final class TraductorSincrono implements Traductor {
+        private final CacheTraducciones cache;
+
+        TraductorSincrono(CacheTraducciones cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public void traducir(String textoEnIngles, Callback callback) {
+            String traduccion = cache.buscar(textoEnIngles);
+            callback.onTraduccion(traduccion != null ? traduccion : textoEnIngles);
+        }
+    }
+
+    private static final class AlmacenVacio implements CacheTraducciones.Almacen {
+        @Override
+        public String leer(String clave) {
+            return null;
+        }
+
+        @Override
+        public void guardar(String clave, String valor) {
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.exploradorvisualparanios;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PoliticaResolucionTest {
+
+    // 5 etiquetados por segundo: 200 ms de presupuesto, se sube con menos de 100 ms esperados
+    private static final float OBJETIVO = 5f;
+    private static final int ARRIBA = PoliticaResolucion.NIVELES.length - 1;
+
+    @Test
+    public void bajaUnNivelCuandoLaVentanaCompletaSuperaElPresupuesto() {
+        PoliticaResolucion politica = new PoliticaResolucion(OBJETIVO, 1);
+        for (int i = 0; i < 7; i++) assertFalse(politica.registrar(250, 10000 + i * 100));
+        assertTrue(politica.registrar(250, 10700));
+        assertEquals(0, politica.getNivel());
+        assertEquals(PoliticaResolucion.NIVELES[0][0], politica.getAncho());
+        assertEquals(1, politica.getCambios());
+
+        // Más abajo no hay a dónde ir
+        for (int i = 0; i < 40; i++) assertFalse(politica.registrar(250, 20000 + i * 100));
+        assertEquals(0, politica.getNivel());
+    }
+
+    @Test
+    public void despuesDeUnCambioEsperaElTiempoMinimo() {
+        PoliticaResolucion politica = new PoliticaResolucion(OBJETIVO, ARRIBA);
+        for (int i = 0; i < 8; i++) politica.registrar(250, 10000 + i * 100);
+        assertEquals(ARRIBA - 1, politica.getNivel());
+
+        // La ventana se llena de nuevo, pero desde el cambio pasaron menos de 3 s
+        for (int i = 1; i <= 8; i++) assertFalse(politica.registrar(250, 10700 + i * 100));
+        assertFalse(politica.registrar(250, 13699));
+        assertTrue(politica.registrar(250, 13700));
+        assertEquals(ARRIBA - 2, politica.getNivel());
+    }
+
+    // El gobernador no tiene el reloj de los frames: la espera arranca con la próxima medición
+    @Test
+    public void laEsperaTrasElTopeEmpiezaConLaPrimeraMedicion() {
+        PoliticaResolucion politica = new PoliticaResolucion(OBJETIVO, ARRIBA);
+        assertTrue(politica.setNivelMaximo(1));
+        for (int i = 0; i < 8; i++) assertFalse(politica.registrar(250, 50000 + i * 100));
+        assertFalse(politica.registrar(250, 52999));
+        assertTrue(politica.registrar(250, 53000));
+        assertEquals(0, politica.getNivel());
+    }
+
+    @Test
+    public void elTopeDeResolucionBajaElNivelYFrenaLaSubida() {
+        PoliticaResolucion politica = new PoliticaResolucion(OBJETIVO, ARRIBA);
+        assertTrue(politica.setNivelMaximo(ARRIBA - 1));
+        assertEquals(ARRIBA - 1, politica.getNivel());
+        assertFalse(politica.setNivelMaximo(ARRIBA - 1));
+
+        // Latencias muy bajas: sin tope subiría, con tope se queda
+        for (int i = 0; i < 16; i++) politica.registrar(10, 10000 + i * 100);
+        assertEquals(ARRIBA - 1, politica.getNivel());
+    }
+
+    @Test
+    public void unaLatenciaBajaNoAlcanzaParaVolverAUnNivelLento() {
+        PoliticaResolucion politica = new PoliticaResolucion(OBJETIVO, ARRIBA);
+        boolean bajo = false;
+        for (int i = 0; i < 8; i++) bajo = politica.registrar(250, 10000 + i * 100);
+        assertTrue(bajo);
+        assertEquals(ARRIBA - 1, politica.getNivel());
+
+        // Abajo sobra holgura, pero arriba ya se midió que no alcanza
+        for (int i = 0; i < 40; i++) politica.registrar(30, 20000 + i * 100);
+        assertEquals(ARRIBA - 1, politica.getNivel());
+
+        // En una sesión nueva se vuelve a probar, escalando por los píxeles
+        politica.reiniciar();
+        for (int i = 0; i < 8; i++) politica.registrar(30, 30000 + i * 100);
+        assertEquals(ARRIBA, politica.getNivel());
+    }
+
+    // Levantar el tope no devuelve el nivel: se vuelve a subir midiendo, y solo
+    // hasta el nivel del que se bajó por lento
+    @Test
+    public void alLevantarElTopeNoSeReintentaElNivelDelQueSeBajo() {
+        PoliticaResolucion politica = new PoliticaResolucion(OBJETIVO, ARRIBA);
+        for (int i = 0; i < 8; i++) politica.registrar(250, 10000 + i * 100);
+        assertEquals(ARRIBA - 1, politica.getNivel());
+
+        assertTrue(politica.setNivelMaximo(ARRIBA - 2));
+        assertFalse(politica.setNivelMaximo(ARRIBA));
+        assertEquals(ARRIBA - 2, politica.getNivel());
+
+        // ARRIBA - 1 nunca tuvo una ventana completa: se estima por los píxeles y se sube
+        for (int i = 0; i < 40; i++) politica.registrar(30, 20000 + i * 100);
+        assertEquals(ARRIBA - 1, politica.getNivel());
+
+        for (int i = 0; i < 40; i++) politica.registrar(30, 30000 + i * 100);
+        assertEquals(ARRIBA - 1, politica.getNivel());
+    }
+
+    @Test
+    public void elNivelInicialDejaElPrimeroParaLaSeveridadCritica() {
+        assertEquals(1, PoliticaResolucion.nivelInicial(4, 512, false));
+        assertEquals(1, PoliticaResolucion.nivelInicial(8, 512, true));
+        assertEquals(2, PoliticaResolucion.nivelInicial(8, 128, false));
+        assertEquals(ARRIBA, PoliticaResolucion.nivelInicial(8, 256, false));
+    }
+}
@@ -0,0 +1,388 @@
+package com.example.exploradorvisualparanios;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+// El pipeline en vivo completo sobre una grabación sintética, en la JVM: escenas
+// de unos segundos a 30 fps, cada una con sus etiquetas guionadas más "Dog", que
+// está en todas. Cubre el formato de grabación, la reproducción determinista, la
+// deduplicación, la cache de traducciones, el limitador y el descarte con el
+// etiquetador ocupado. El costo por frame se mide en PipelineEtiquetasBenchmark.
+public class ReproduccionPipelineTest {
+
+    private static final int ANCHO = 160;
+    private static final int ALTO = 120;
+    private static final long PERIODO_MS = 33;
+    private static final int ESCENAS = 8;
+    private static final int FRAMES_POR_ESCENA = 90;
+    private static final int FRAMES = ESCENAS * FRAMES_POR_ESCENA;
+    // Mismos parámetros que MainActivity
+    private static final int UMBRAL_CAMBIO_ESCENA = 6;
+    private static final long MAX_SIN_ANALIZAR_MS = 2000;
+
+    private static File grabacion;
+    private static DatosCuriosos datosCuriosos;
+
+    @BeforeClass
+    public static void grabarSesion() throws Exception {
+        datosCuriosos = IndiceDatosCuriosos.cargar();
+        grabacion = File.createTempFile("sesion", ".frm");
+        Random random = new Random(7);
+        GrabadorFrames grabador = new GrabadorFrames(grabacion, FrameYuv::cerrar);
+        for (int f = 0; f < FRAMES; f++) {
+            grabador.alRecibir(frameSintetico(f * PERIODO_MS, 30 + 25 * (f / FRAMES_POR_ESCENA), random));
+        }
+        grabador.cerrar();
+        assertEquals(FRAMES, grabador.getGrabados());
+    }
+
+    @AfterClass
+    public static void borrarGrabacion() {
+        grabacion.delete();
+    }
+
+    @Test
+    public void laGrabacionQuitaElRellenoYConservaLosFrames() throws IOException {
+        File archivo = File.createTempFile("relleno", ".frm");
+        try {
+            GrabadorFrames grabador = new GrabadorFrames(archivo, FrameYuv::cerrar);
+            for (int i = 0; i < 3; i++) grabador.alRecibir(new FrameConRelleno(1000 + i, 6, 4, 90, i));
+            grabador.cerrar();
+
+            List<FrameGrabado> leidos = new ArrayList<>();
+            int entregados = new ReproductorFrames(archivo, 0).reproducir(frame -> leidos.add((FrameGrabado) frame));
+            assertEquals(3, entregados);
+            for (int i = 0; i < 3; i++) {
+                FrameGrabado frame = leidos.get(i);
+                assertEquals(1000 + i, frame.getInstanteMs());
+                assertEquals(6, frame.getAncho());
+                assertEquals(4, frame.getAlto());
+                assertEquals(90, frame.getRotacion());
+                assertArrayEquals(FrameConRelleno.nv21Esperado(6, 4, i), frame.getNv21());
+                // Los planos del frame reproducido se leen igual que los de la cámara
+                assertEquals(FrameConRelleno.u(1, 1, i), frame.getPlano(1).get(frame.getRowStride(1) + frame.getPixelStride(1)));
+                assertEquals(FrameConRelleno.v(2, 1, i), frame.getPlano(2).get(frame.getRowStride(2) + 2 * frame.getPixelStride(2)));
+            }
+        } finally {
+            archivo.delete();
+        }
+    }
+
+    @Test
+    public void laReproduccionEsDeterminista() throws IOException {
+        Sesion primera = new Sesion(UMBRAL_CAMBIO_ESCENA);
+        Sesion segunda = new Sesion(UMBRAL_CAMBIO_ESCENA);
+        assertEquals(FRAMES, new ReproductorFrames(grabacion, 0).reproducir(primera.pipeline));
+        assertEquals(FRAMES, new ReproductorFrames(grabacion, 0).reproducir(segunda.pipeline));
+
+        assertFalse(primera.publicadas.isEmpty());
+        assertEquals(primera.publicadas, segunda.publicadas);
+        assertEquals(primera.etiquetador.getEtiquetados(), segunda.etiquetador.getEtiquetados());
+    }
+
+    @Test
+    public void cadaEtiquetaSePublicaYTraduceUnaSolaVez() throws IOException {
+        Sesion sesion = new Sesion(UMBRAL_CAMBIO_ESCENA);
+        new ReproductorFrames(grabacion, 0).reproducir(sesion.pipeline);
+
+        // "Dog" está en todas las escenas y sigue estable: se anuncia una vez
+        int distintas = 1 + 2 * ESCENAS;
+        assertEquals(distintas, sesion.publicadas.size());
+        assertEquals(distintas, new HashSet<>(sesion.publicadas).size());
+        assertEquals("es:Dog", sesion.publicadas.get(0));
+        assertEquals(distintas, sesion.traductor.fallos);
+    }
+
+    @Test
+    public void cadaPublicacionLlevaLaMiniaturaDeSuFrame() throws IOException {
+        Sesion sesion = new Sesion(UMBRAL_CAMBIO_ESCENA);
+        new ReproductorFrames(grabacion, 0).reproducir(sesion.pipeline);
+
+        // Una publicación por escena; 160x120 se submuestrea de a 2
+        assertEquals(ESCENAS, sesion.miniaturas.size());
+        for (int escena = 0; escena < ESCENAS; escena++) {
+            MiniaturaGris miniatura = sesion.miniaturas.get(escena);
+            assertEquals(ANCHO / 2, miniatura.ancho);
+            assertEquals(ALTO / 2, miniatura.alto);
+            assertEquals(ANCHO / 2 * ALTO / 2, miniatura.luma.length);
+            // Cada escena es más clara que la anterior
+            if (escena > 0) assertTrue(media(miniatura) > media(sesion.miniaturas.get(escena - 1)));
+        }
+    }
+
+    @Test
+    public void unaTraduccionFallidaNoSeGuardaYSeReintenta() {
+        RegistroEtiquetas registro = new RegistroEtiquetas(datosCuriosos);
+        registro.registrar(7, "Dog");
+        int[] indices = {7};
+        List<String> mostradas = new ArrayList<>();
+        RegistroEtiquetas.AlTraducir alTraducir = (publicadas, cantidad) ->
+                mostradas.add(registro.getTraduccion(publicadas[0]));
+
+        registro.asegurarTraducciones(indices, 1, (texto, callback) -> callback.onTraduccion(null), alTraducir);
+        registro.asegurarTraducciones(indices, 1, new TraductorContado(), alTraducir);
+
+        assertEquals(2, mostradas.size());
+        assertEquals("Dog", mostradas.get(0));
+        assertEquals("es:Dog", mostradas.get(1));
+    }
+
+    @Test
+    public void elDetectorOmiteLasEscenasQuietas() throws IOException {
+        Sesion sesion = new Sesion(UMBRAL_CAMBIO_ESCENA);
+        new ReproductorFrames(grabacion, 0).reproducir(sesion.pipeline);
+
+        // Un análisis al empezar cada escena y otro cuando vence MAX_SIN_ANALIZAR_MS
+        long porEscena = (FRAMES_POR_ESCENA * PERIODO_MS - 1) / MAX_SIN_ANALIZAR_MS + 1;
+        assertEquals(ESCENAS * porEscena, sesion.etiquetador.getEtiquetados());
+        assertEquals(FRAMES - ESCENAS * porEscena, sesion.detector.getOmitidos());
+    }
+
+    @Test
+    public void elLimitadorRespetaElIntervaloDelGobernador() throws IOException {
+        // Umbral 0: sin limitador se etiquetaría cada frame
+        Sesion sinLimite = new Sesion(0);
+        new ReproductorFrames(grabacion, 0).reproducir(sinLimite.pipeline);
+        assertEquals(FRAMES, sinLimite.etiquetador.getEtiquetados());
+
+        Sesion limitada = new Sesion(0);
+        limitada.pipeline.setIntervaloMinimoMs(500);
+        new ReproductorFrames(grabacion, 0).reproducir(limitada.pipeline);
+        long cadaCuantos = (500 + PERIODO_MS - 1) / PERIODO_MS;
+        assertEquals((FRAMES + cadaCuantos - 1) / cadaCuantos, limitada.etiquetador.getEtiquetados());
+    }
+
+    // Mientras un frame está en el etiquetador los demás se cierran sin analizar
+    @Test
+    public void conElEtiquetadorOcupadoSeDescartaYElEtiquetadoSeMideDesdeQueEmpieza() throws Exception {
+        List<Runnable> turnos = new ArrayList<>();
+        Sesion sesion = new Sesion(0, turnos);
+        Random random = new Random(1);
+        sesion.pipeline.alRecibir(frameSintetico(0, 100, random));
+        sesion.pipeline.alRecibir(frameSintetico(PERIODO_MS, 100, random));
+        assertEquals(1, turnos.size());
+        assertEquals(1, sesion.instrumentacion.getFramesDescartados());
+
+        // El frame espera 50 ms antes de entrar: esa espera no cuenta como etiquetado
+        Thread.sleep(50);
+        turnos.get(0).run();
+        HistogramaLatencias etiquetado = sesion.instrumentacion.getHistograma(Instrumentacion.Etapa.ETIQUETADO);
+        assertEquals(1, etiquetado.getCantidad());
+        assertTrue(etiquetado.percentilUs(50) < 50000);
+        assertEquals(1, sesion.procesados);
+
+        // Con el resultado procesado entra el siguiente
+        sesion.pipeline.alRecibir(frameSintetico(2 * PERIODO_MS, 100, random));
+        assertEquals(2, turnos.size());
+        assertEquals(1, sesion.instrumentacion.getFramesDescartados());
+    }
+
+    // Un pipeline nuevo con los mismos umbrales que MainActivity, con el etiquetador guionado
+    private static final class Sesion {
+        final List<String> publicadas = new ArrayList<>();
+        final List<MiniaturaGris> miniaturas = new ArrayList<>();
+        final Instrumentacion instrumentacion = new Instrumentacion();
+        final DetectorCambioEscena detector;
+        final EtiquetadorGuionado etiquetador;
+        final TraductorContado traductor = new TraductorContado();
+        final PipelineEnVivo pipeline;
+        // Hilo de resultados
+        int procesados = 0;
+
+        Sesion(int umbral) {
+            this(umbral, null);
+        }
+
+        // Con `turnos`, cada etiquetado espera ahí a que la prueba lo largue
+        Sesion(int umbral, List<Runnable> turnos) {
+            this.detector = new DetectorCambioEscena(umbral, MAX_SIN_ANALIZAR_MS);
+            this.etiquetador = guion();
+            Etiquetador etiquetadorPipeline = turnos == null ? etiquetador : (frame, ejecutor, callback) ->
+                    turnos.add(() -> etiquetador.etiquetar(frame, ejecutor, callback));
+            RegistroEtiquetas registro = new RegistroEtiquetas(datosCuriosos);
+            ProcesadorEtiquetas procesador = new ProcesadorEtiquetas(registro,
+                    new EstabilizadorEtiquetas(0.5f, 0.6f, 0.2f, 4000, 64), ContenedorMotores.CONFIDENCE_THRESHOLD, 5);
+            pipeline = new PipelineEnVivo(etiquetadorPipeline, detector, procesador, registro, traductor,
+                    new PoliticaResolucion(5f, 2), instrumentacion, Runnable::run, new PipelineEnVivo.Oyente() {
+                @Override
+                public void alEtiquetarFrame() {
+                    procesados++;
+                }
+
+                @Override
+                public void alPublicar(int[] indices, int cantidad, MiniaturaGris miniatura) {
+                    for (int i = 0; i < cantidad; i++) publicadas.add(registro.getTraduccion(indices[i]));
+                    miniaturas.add(miniatura);
+                }
+
+                @Override
+                public void alCambiarNivel() {
+                }
+
+                @Override
+                public void alFallar(Exception e) {
+                    throw new AssertionError(e);
+                }
+            });
+        }
+    }
+
+    private static EtiquetadorGuionado guion() {
+        EtiquetadorGuionado etiquetador = new EtiquetadorGuionado();
+        for (int s = 0; s < ESCENAS; s++) {
+            int a = 1 + 2 * s;
+            etiquetador.escena(s * FRAMES_POR_ESCENA * PERIODO_MS,
+                    new int[]{0, a, a + 1},
+                    new String[]{"Dog", "Label " + a, "Label " + (a + 1)},
+                    new float[]{0.95f, 0.9f, 0.85f});
+        }
+        return etiquetador;
+    }
+
+    // Como TraductorEtiquetas: primero la cache y solo ante un fallo el "modelo"
+    private static final class TraductorContado implements Traductor {
+        final Map<String, String> cache = new HashMap<>();
+        int fallos = 0;
+
+        @Override
+        public void traducir(String textoEnIngles, Callback callback) {
+            String traduccion = cache.get(textoEnIngles);
+            if (traduccion == null) {
+                fallos++;
+                traduccion = "es:" + textoEnIngles;
+                cache.put(textoEnIngles, traduccion);
+            }
+            callback.onTraduccion(traduccion);
+        }
+    }
+
+    private static double media(MiniaturaGris miniatura) {
+        long suma = 0;
+        for (byte y : miniatura.luma) suma += y & 0xFF;
+        return (double) suma / miniatura.luma.length;
+    }
+
+    // Luminancia de la escena con un degradado y algo de ruido de sensor
+    private static FrameGrabado frameSintetico(long instanteMs, int luminancia, Random random) {
+        byte[] nv21 = new byte[FrameGrabado.tamanoNv21(ANCHO, ALTO)];
+        for (int y = 0; y < ALTO; y++) {
+            for (int x = 0; x < ANCHO; x++) {
+                nv21[y * ANCHO + x] = (byte) (luminancia + x / 16 + random.nextInt(3));
+            }
+        }
+        for (int i = ANCHO * ALTO; i < nv21.length; i++) nv21[i] = (byte) 128;
+        return new FrameGrabado(instanteMs, ANCHO, ALTO, 0, nv21);
+    }
+
+    // Como un ImageProxy con filas rellenadas y planos U y V separados (I420)
+    private static final class FrameConRelleno implements FrameYuv {
+        private static final int RELLENO = 8;
+
+        private final long instanteMs;
+        private final int ancho;
+        private final int alto;
+        private final int rotacion;
+        private final ByteBuffer[] planos = new ByteBuffer[3];
+
+        FrameConRelleno(long instanteMs, int ancho, int alto, int rotacion, int semilla) {
+            this.instanteMs = instanteMs;
+            this.ancho = ancho;
+            this.alto = alto;
+            this.rotacion = rotacion;
+            planos[0] = ByteBuffer.allocateDirect((ancho + RELLENO) * alto);
+            planos[1] = ByteBuffer.allocateDirect((ancho / 2 + RELLENO) * alto / 2);
+            planos[2] = ByteBuffer.allocateDirect((ancho / 2 + RELLENO) * alto / 2);
+            for (int y = 0; y < alto; y++) {
+                for (int x = 0; x < ancho; x++) planos[0].put(y * (ancho + RELLENO) + x, luma(x, y, semilla));
+            }
+            for (int y = 0; y < alto / 2; y++) {
+                for (int x = 0; x < ancho / 2; x++) {
+                    planos[1].put(y * (ancho / 2 + RELLENO) + x, u(x, y, semilla));
+                    planos[2].put(y * (ancho / 2 + RELLENO) + x, v(x, y, semilla));
+                }
+            }
+        }
+
+        static byte luma(int x, int y, int semilla) {
+            return (byte) (semilla * 50 + y * 10 + x);
+        }
+
+        static byte u(int x, int y, int semilla) {
+            return (byte) (100 + semilla + y * 4 + x);
+        }
+
+        static byte v(int x, int y, int semilla) {
+            return (byte) (200 + semilla + y * 4 + x);
+        }
+
+        static byte[] nv21Esperado(int ancho, int alto, int semilla) {
+            byte[] nv21 = new byte[FrameGrabado.tamanoNv21(ancho, alto)];
+            int i = 0;
+            for (int y = 0; y < alto; y++) {
+                for (int x = 0; x < ancho; x++) nv21[i++] = luma(x, y, semilla);
+            }
+            for (int y = 0; y < alto / 2; y++) {
+                for (int x = 0; x < ancho / 2; x++) {
+                    nv21[i++] = v(x, y, semilla);
+                    nv21[i++] = u(x, y, semilla);
+                }
+            }
+            return nv21;
+        }
+
+        @Override
+        public long getInstanteMs() {
+            return instanteMs;
+        }
+
+        @Override
+        public int getAncho() {
+            return ancho;
+        }
+
+        @Override
+        public int getAlto() {
+            return alto;
+        }
+
+        @Override
+        public int getRotacion() {
+            return rotacion;
+        }
+
+        @Override
+        public ByteBuffer getPlano(int plano) {
+            return planos[plano];
+        }
+
+        @Override
+        public int getRowStride(int plano) {
+            return plano == 0 ? ancho + RELLENO : ancho / 2 + RELLENO;
+        }
+
+        @Override
+        public int getPixelStride(int plano) {
+            return 1;
+        }
+
+        @Override
+        public void cerrar() {
+        }
+    }
+}